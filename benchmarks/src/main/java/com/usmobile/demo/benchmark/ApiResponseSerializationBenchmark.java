@@ -0,0 +1,56 @@
+package com.usmobile.demo.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.core.BookPageDTO;
+import com.usmobile.demo.util.ApiResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures Jackson serialization of the GET /books response body for the smallest, default and largest page sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<BookPageDTO> response;
+
+    @Setup
+    public void setup() {
+        // same builder Spring Boot uses, so JavaTimeModule and the default features match the running service
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<BookDTO> books = IntStream.range(0, size)
+                .mapToObj(BenchmarkFixtures::bookDTO)
+                .toList();
+        response = new ApiResponse<>(200, "Books found", new BookPageDTO(books, "NjZhMGMwZmZlZTAwMDAwMDAwMDAwMDAx"));
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,52 @@
+package com.usmobile.demo.benchmark;
+
+import com.usmobile.demo.service.BookAutocompleteIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures top-10 completions from the in-memory autocomplete index, for a broad one-letter prefix
+ * and for a selective one, over catalogs of different sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AutocompleteBenchmark {
+
+    @Param({"10000", "100000"})
+    private int books;
+
+    private BookAutocompleteIndex index;
+
+    @Setup
+    public void setup() {
+        index = new BookAutocompleteIndex();
+        index.load(IntStream.range(0, books).mapToObj(BenchmarkFixtures::bookDTO));
+    }
+
+    @Benchmark
+    public List<String> broadPrefix() {
+        return index.complete("b", 10);
+    }
+
+    @Benchmark
+    public List<String> selectivePrefix() {
+        return index.complete("Benchmark Book 4242", 10);
+    }
+}
@@ -0,0 +1,30 @@
+package com.usmobile.demo.benchmark;
+
+import com.usmobile.demo.core.BookDTO;
+
+import java.time.LocalDate;
+
+/**
+ * Test data shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Builds a fully populated book whose fields are derived from the given sequence number.
+     *
+     * @param n the sequence number
+     * @return the book
+     */
+    static BookDTO bookDTO(int n) {
+        BookDTO book = new BookDTO();
+        book.setId(String.format("%024x", n));
+        book.setTitle("Benchmark Book " + n);
+        book.setAuthor("Author " + (n % 100));
+        book.setIsbn(String.format("%013d", n));
+        book.setPublishedDate(LocalDate.of(2000, 1, 1).plusDays(n % 9000));
+        return book;
+    }
+}
@@ -0,0 +1,61 @@
+package com.usmobile.demo.benchmark;
+
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.util.BookHelper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the validated $set applied on partial updates, for a single-field and a full-body update.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookHelperBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private BookDTO singleFieldUpdate;
+    private BookDTO fullUpdate;
+
+    @Setup
+    public void setup() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        new BookHelper(validatorFactory.getValidator());
+
+        singleFieldUpdate = new BookDTO();
+        singleFieldUpdate.setTitle("Updated title");
+        fullUpdate = BenchmarkFixtures.bookDTO(2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Update updateSingleField() {
+        return BookHelper.toValidatedUpdate(singleFieldUpdate);
+    }
+
+    @Benchmark
+    public Update updateAllFields() {
+        return BookHelper.toValidatedUpdate(fullUpdate);
+    }
+}
@@ -0,0 +1,61 @@
+package com.usmobile.demo.benchmark;
+
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.entity.BookDAO;
+import com.usmobile.demo.mapper.BookMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the explicit BookMapper conversions with the reflective ModelMapper fallback.
+ * Run with {@code -prof gc} to see the allocation rate per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookMapperBenchmark {
+
+    private BookMapper bookMapper;
+    private BookDTO bookDTO;
+    private BookDAO bookDAO;
+
+    @Setup
+    public void setup() {
+        bookMapper = new BookMapper();
+        bookDTO = BenchmarkFixtures.bookDTO(1);
+        bookDAO = bookMapper.toDAO(bookDTO);
+    }
+
+    @Benchmark
+    public BookDAO toDAO() {
+        return bookMapper.toDAO(bookDTO);
+    }
+
+    @Benchmark
+    public BookDTO toCore() {
+        return bookMapper.toCore(bookDAO);
+    }
+
+    @Benchmark
+    public BookDAO modelMapperToDAO() {
+        return bookMapper.map(bookDTO, BookDAO.class);
+    }
+
+    @Benchmark
+    public BookDTO modelMapperToCore() {
+        return bookMapper.map(bookDAO, BookDTO.class);
+    }
+}
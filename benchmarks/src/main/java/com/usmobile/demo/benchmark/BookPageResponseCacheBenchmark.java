@@ -0,0 +1,67 @@
+package com.usmobile.demo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.core.BookPageDTO;
+import com.usmobile.demo.core.BookQuery;
+import com.usmobile.demo.service.BookPageResponseCache;
+import com.usmobile.demo.util.ApiResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares answering GET /books from the serialized page cache with filling it, which serializes and gzips the page.
+ * Compare fill with ApiResponseSerializationBenchmark to see the cost of the gzip copy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookPageResponseCacheBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int size;
+
+    private BookPageResponseCache pageCache;
+    private ApiResponse<BookPageDTO> response;
+    private String key;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        pageCache = new BookPageResponseCache(new ConcurrentMapCacheManager(), objectMapper, 1024);
+        List<BookDTO> books = IntStream.range(0, size)
+                .mapToObj(BenchmarkFixtures::bookDTO)
+                .toList();
+        response = new ApiResponse<>(200, "Books found", new BookPageDTO(books, "NjZhMGMwZmZlZTAwMDAwMDAwMDAwMDAx"));
+        key = BookPageResponseCache.key(new BookQuery(), size, null, false);
+        pageCache.put(key, pageCache.generation(), response, "W/\"0\"", false);
+    }
+
+    @Benchmark
+    public BookPageResponseCache.CachedPage hit() {
+        return pageCache.get(key);
+    }
+
+    @Benchmark
+    public BookPageResponseCache.CachedPage fill() {
+        return pageCache.put(key, pageCache.generation(), response, "W/\"0\"", false);
+    }
+}
@@ -0,0 +1,101 @@
+package com.usmobile.demo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.util.BookHelper;
+import com.usmobile.demo.util.BookPatch;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the empty update check and the whole partial update preparation with the patch descriptor against the
+ * previous check, which converted the request to a Map through Jackson before building the $set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookPatchBenchmark {
+
+    @Param({"empty", "singleField", "allFields"})
+    public String update;
+
+    private ObjectMapper objectMapper;
+    private ValidatorFactory validatorFactory;
+    private BookDTO request;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        new BookHelper(validatorFactory.getValidator());
+
+        request = switch (update) {
+            case "empty" -> new BookDTO();
+            case "singleField" -> {
+                BookDTO book = new BookDTO();
+                book.setPublishedDate(LocalDate.of(2024, 5, 1));
+                yield book;
+            }
+            default -> BenchmarkFixtures.bookDTO(2);
+        };
+        request.setId("66a0c0ffee00000000000001");
+        request.setVersion(3L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public boolean emptyCheckConvertValue() {
+        return isEmptyByMap(request);
+    }
+
+    @Benchmark
+    public boolean emptyCheckPatch() {
+        return BookPatch.of(request).isEmpty();
+    }
+
+    @Benchmark
+    public Update prepareUpdateConvertValue() {
+        return isEmptyByMap(request) ? null : BookHelper.toValidatedUpdate(request);
+    }
+
+    @Benchmark
+    public Update prepareUpdatePatch() {
+        BookPatch patch = BookPatch.of(request);
+        return patch.isEmpty() ? null : BookHelper.toValidatedUpdate(patch);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean isEmptyByMap(BookDTO bookDTO) {
+        Map<String, Object> map = objectMapper.convertValue(bookDTO, Map.class);
+        map.remove("id");
+        map.remove("version");
+        map.values().removeIf(Objects::isNull);
+        return map.isEmpty();
+    }
+}
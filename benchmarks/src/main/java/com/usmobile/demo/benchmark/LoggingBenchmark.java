@@ -0,0 +1,111 @@
+package com.usmobile.demo.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.usmobile.demo.config.RequestCorrelationFilter;
+import com.usmobile.demo.config.SampledLogTurboFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the request-thread cost of the per-request info line logged by BookServiceImpl, written to a file:
+ * synchronously, through the bounded async queue of logback-spring.xml, and through the queue with 10% of requests
+ * sampled. The async score includes lines dropped once the queue is 80% full, as happens in production when the
+ * writer falls behind; sampling drops lines before they reach the queue.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final double SAMPLE_RATE = 0.1;
+
+    @Param({"sync", "async", "async-sampled"})
+    public String mode;
+
+    private LoggerContext context;
+    private Logger logger;
+    private Path logFile;
+
+    @Setup
+    public void setup() throws IOException {
+        logFile = Files.createTempFile("logging-benchmark", ".log");
+        context = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{ISO8601} %level [%thread] [%X{requestId}] %logger - %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> appender = file;
+        if (!mode.equals("sync")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(false);
+            async.addAppender(file);
+            async.start();
+            appender = async;
+        }
+        if (mode.equals("async-sampled")) {
+            SampledLogTurboFilter sampler = new SampledLogTurboFilter();
+            sampler.setContext(context);
+            sampler.start();
+            context.addTurboFilter(sampler);
+        }
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        logger = context.getLogger("com.usmobile.demo.service.BookServiceImpl");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void logRequest() {
+        // what RequestCorrelationFilter does per request, in every mode so that only the appender path differs
+        MDC.put(RequestCorrelationFilter.REQUEST_ID_KEY, "6650f1c2a1b2c3d4e5f60718");
+        MDC.put(RequestCorrelationFilter.SAMPLED_KEY,
+                Boolean.toString(ThreadLocalRandom.current().nextDouble() < SAMPLE_RATE));
+        logger.info("Finding book with ID {}", "6650f1c2a1b2c3d4e5f60718");
+    }
+}
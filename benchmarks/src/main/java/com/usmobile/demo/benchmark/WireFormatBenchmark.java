@@ -0,0 +1,100 @@
+package com.usmobile.demo.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.core.BookPageDTO;
+import com.usmobile.demo.util.ApiResponse;
+import com.usmobile.demo.util.CborHelper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the JSON and CBOR encodings of the GET /books response body: encode and decode time per page,
+ * and the payload size, reported as the payloadBytes counter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"1", "50", "500"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private JavaType responseType;
+    private ApiResponse<BookPageDTO> response;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        // the JSON mapper is configured like Spring Boot's, the CBOR one is the mapper the service registers
+        objectMapper = "cbor".equals(format)
+                ? CborHelper.newMapper()
+                : Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        responseType = objectMapper.getTypeFactory().constructParametricType(ApiResponse.class, BookPageDTO.class);
+        Instant modified = Instant.parse("2025-01-01T10:00:00.123Z");
+        List<BookDTO> books = IntStream.range(0, size)
+                .mapToObj(n -> {
+                    BookDTO book = BenchmarkFixtures.bookDTO(n);
+                    book.setCreatedAt(modified);
+                    book.setLastModified(modified.plusSeconds(n));
+                    return book;
+                })
+                .toList();
+        response = new ApiResponse<>(200, "Books found", new BookPageDTO(books, "NjZhMGMwZmZlZTAwMDAwMDAwMDAwMDAx"));
+        encoded = objectMapper.writeValueAsBytes(response);
+    }
+
+    /**
+     * Reports the encoded page size once per iteration, next to the timings.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class PayloadSize {
+
+        public long payloadBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            payloadBytes = 0;
+        }
+    }
+
+    @Benchmark
+    public byte[] encode(PayloadSize payloadSize) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(response);
+        payloadSize.payloadBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public ApiResponse<BookPageDTO> decode() throws IOException {
+        return objectMapper.readValue(encoded, responseType);
+    }
+}
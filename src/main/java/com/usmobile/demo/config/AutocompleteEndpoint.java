@@ -0,0 +1,26 @@
+package com.usmobile.demo.config;
+
+import com.usmobile.demo.service.BookAutocompleteIndex;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint (/actuator/autocomplete) reporting the size and estimated memory footprint of the
+ * autocomplete index.
+ */
+@Component
+@Endpoint(id = "autocomplete")
+public class AutocompleteEndpoint {
+
+    private final BookAutocompleteIndex autocompleteIndex;
+
+    public AutocompleteEndpoint(BookAutocompleteIndex autocompleteIndex) {
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    @ReadOperation
+    public BookAutocompleteIndex.Stats stats() {
+        return autocompleteIndex.stats();
+    }
+}
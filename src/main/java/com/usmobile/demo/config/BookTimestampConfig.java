@@ -0,0 +1,59 @@
+package com.usmobile.demo.config;
+
+import com.usmobile.demo.entity.BookDAO;
+import com.usmobile.demo.util.BookHelper;
+import org.reactivestreams.Publisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeConvertCallback;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stamps createdAt and lastModified on every book written as a whole document: save, saveAll, insert and the
+ * unordered bulk inserts all run these callbacks before mapping the book. Field updates do not go through
+ * them, so the repository fragments set lastModified on every update they send.
+ */
+@Configuration
+public class BookTimestampConfig {
+
+    @Bean
+    public BookTimestampCallback bookTimestampCallback() {
+        return new BookTimestampCallback();
+    }
+
+    @Bean
+    public ReactiveBookTimestampCallback reactiveBookTimestampCallback() {
+        return new ReactiveBookTimestampCallback();
+    }
+
+    /**
+     * Sets lastModified to now, and createdAt as well unless the book already has one.
+     *
+     * @param book the book about to be written
+     * @return the same book
+     */
+    static BookDAO stamp(BookDAO book) {
+        book.setLastModified(BookHelper.now());
+        if (book.getCreatedAt() == null) {
+            book.setCreatedAt(book.getLastModified());
+        }
+        return book;
+    }
+
+    public static class BookTimestampCallback implements BeforeConvertCallback<BookDAO> {
+
+        @Override
+        public BookDAO onBeforeConvert(BookDAO book, String collection) {
+            return stamp(book);
+        }
+    }
+
+    public static class ReactiveBookTimestampCallback implements ReactiveBeforeConvertCallback<BookDAO> {
+
+        @Override
+        public Publisher<BookDAO> onBeforeConvert(BookDAO book, String collection) {
+            return Mono.just(stamp(book));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.usmobile.demo.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.usmobile.demo.service.BookPageResponseCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Enables the Caffeine backed cache manager configured through the spring.cache.* properties
+ * and holds the names of the caches used by the service layer.
+ * Hit, miss and eviction counts are published as the cache.gets and cache.evictions meters.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Mapped books keyed by book ID.
+     */
+    public static final String BOOKS_BY_ID = "booksById";
+
+    /**
+     * Book IDs keyed by ISBN. Entries are only trusted after checking the ISBN of the book they point to.
+     */
+    public static final String BOOK_IDS_BY_ISBN = "bookIdsByIsbn";
+
+    /**
+     * Serialized GET /books responses keyed by query. Bounded by payload size rather than entry count,
+     * so it gets its own Caffeine spec instead of spring.cache.caffeine.spec.
+     */
+    public static final String BOOK_PAGES = "bookPages";
+
+    /**
+     * Status of the writes accepted by the write-behind queue, keyed by tracking ID. Sized for the write volume
+     * rather than the catalog, so it also gets its own Caffeine spec.
+     */
+    public static final String BOOK_WRITES = "bookWrites";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> bookPagesCacheCustomizer(
+            @Value("${books.page-cache.max-bytes:33554432}") long maxBytes,
+            @Value("${books.page-cache.expire-after-write:1m}") Duration expireAfterWrite) {
+        return cacheManager -> cacheManager.registerCustomCache(BOOK_PAGES, Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Object key, Object value) -> value instanceof BookPageResponseCache.CachedPage page ? page.weight() : 1)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build());
+    }
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> bookWritesCacheCustomizer(
+            @Value("${books.write-behind.tracking.max-size:100000}") long maxSize,
+            @Value("${books.write-behind.tracking.expire-after-write:10m}") Duration expireAfterWrite) {
+        return cacheManager -> cacheManager.registerCustomCache(BOOK_WRITES, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build());
+    }
+}
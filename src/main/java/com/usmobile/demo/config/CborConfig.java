@@ -0,0 +1,26 @@
+package com.usmobile.demo.config;
+
+import com.usmobile.demo.util.CborHelper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Serves and accepts application/cbor on every endpoint returning or taking a JSON body, through the mapper
+ * of {@link CborHelper}. The converter replaces the one Spring MVC registers by default and stays after the
+ * JSON converter, so requests accepting any type keep getting JSON.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CborConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(CborHelper.newMapper()));
+    }
+}
@@ -0,0 +1,103 @@
+package com.usmobile.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Records a timer per method of the advised bean, tagged with the class, the method and the exception thrown
+ * ("none" on success). Latency distributions are configured through management.metrics.distribution.*.
+ * A returned {@link Stream} is timed until it is closed; a {@link Mono} or {@link Flux} from subscription
+ * until it terminates, since assembling one does no work.
+ */
+public class MethodTimer implements MethodInterceptor {
+
+    private final String name;
+    private final String className;
+    private final Supplier<MeterRegistry> registrySupplier;
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    /**
+     * Constructs a new MethodTimer.
+     *
+     * @param name             the timer name
+     * @param className        the value of the class tag
+     * @param registrySupplier the registry, looked up on first use so that it is fully configured by then
+     */
+    public MethodTimer(String name, String className, Supplier<MeterRegistry> registrySupplier) {
+        this.name = name;
+        this.className = className;
+        this.registrySupplier = registrySupplier;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+
+        Timer.Sample sample = Timer.start(registry());
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable t) {
+            sample.stop(timer(method, t));
+            throw t;
+        }
+
+        if (result instanceof Stream<?> stream) {
+            return stream.onClose(() -> sample.stop(timer(method, null)));
+        }
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                Timer.Sample subscribed = Timer.start(registry());
+                return mono.doOnSuccess(value -> subscribed.stop(timer(method, null)))
+                        .doOnError(e -> subscribed.stop(timer(method, e)));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                Timer.Sample subscribed = Timer.start(registry());
+                return flux.doOnComplete(() -> subscribed.stop(timer(method, null)))
+                        .doOnError(e -> subscribed.stop(timer(method, e)));
+            });
+        }
+        sample.stop(timer(method, null));
+        return result;
+    }
+
+    private Timer timer(Method method, Throwable error) {
+        if (error == null) {
+            return successTimers.computeIfAbsent(method, m -> register(m, "none"));
+        }
+        return register(method, error.getClass().getSimpleName());
+    }
+
+    private Timer register(Method method, String exception) {
+        return Timer.builder(name)
+                .tag("class", className)
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(registry());
+    }
+
+    private MeterRegistry registry() {
+        MeterRegistry current = registry;
+        if (current == null) {
+            current = registrySupplier.get();
+            registry = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,63 @@
+package com.usmobile.demo.config;
+
+import com.usmobile.demo.mapper.BookMapper;
+import com.usmobile.demo.repository.BookRepositoryInterface;
+import com.usmobile.demo.repository.ReactiveBookRepositoryInterface;
+import com.usmobile.demo.service.BookServiceInterface;
+import com.usmobile.demo.service.ReactiveBookServiceInterface;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Times every call to the book services (books.service), the book repositories (books.repository) and,
+ * when books.metrics.mapper.enabled is set, the book mapper (books.mapper).
+ * The mapper timer is off by default: a conversion takes tens of nanoseconds, so timing each call costs as much
+ * as the conversion itself. Mongo driver command and connection pool meters come from Spring Boot.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor bookMethodTimers(ObjectProvider<MeterRegistry> meterRegistry,
+                                                     @Value("${books.metrics.mapper.enabled:false}") boolean timeMapper) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof BookServiceInterface) {
+                    return timed(bean, BookServiceInterface.class, "books.service");
+                }
+                if (bean instanceof ReactiveBookServiceInterface) {
+                    return timed(bean, ReactiveBookServiceInterface.class, "books.service");
+                }
+                if (bean instanceof BookRepositoryInterface) {
+                    return timed(bean, BookRepositoryInterface.class, "books.repository");
+                }
+                if (bean instanceof ReactiveBookRepositoryInterface) {
+                    return timed(bean, ReactiveBookRepositoryInterface.class, "books.repository");
+                }
+                if (timeMapper && bean instanceof BookMapper) {
+                    return timed(bean, null, "books.mapper");
+                }
+                return bean;
+            }
+
+            private Object timed(Object bean, Class<?> type, String name) {
+                ProxyFactory proxyFactory = new ProxyFactory();
+                proxyFactory.setTarget(bean);
+                if (type == null) {
+                    proxyFactory.setProxyTargetClass(true);
+                } else {
+                    proxyFactory.addInterface(type);
+                }
+                String className = type == null ? bean.getClass().getSimpleName() : type.getSimpleName();
+                proxyFactory.addAdvice(new MethodTimer(name, className, meterRegistry::getObject));
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+}
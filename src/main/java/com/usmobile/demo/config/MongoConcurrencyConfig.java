@@ -0,0 +1,44 @@
+package com.usmobile.demo.config;
+
+import com.usmobile.demo.repository.BookRepositoryInterface;
+import com.usmobile.demo.repository.MongoConcurrencyLimiter;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wraps {@link BookRepositoryInterface} with a {@link MongoConcurrencyLimiter} when
+ * books.mongo.concurrency-limit.enabled is set, which the virtual-threads profile does.
+ * Keep the limit below the driver's maxPoolSize (100 by default) so waiting happens on the permit, not in the pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "books.mongo.concurrency-limit.enabled", havingValue = "true")
+public class MongoConcurrencyConfig {
+
+    @Bean
+    public static MongoConcurrencyLimiter mongoConcurrencyLimiter(
+            @Value("${books.mongo.concurrency-limit.max-concurrent:64}") int maxConcurrent,
+            @Value("${books.mongo.concurrency-limit.acquire-timeout-ms:2000}") long acquireTimeoutMillis) {
+        return new MongoConcurrencyLimiter(maxConcurrent, acquireTimeoutMillis);
+    }
+
+    @Bean
+    public static BeanPostProcessor bookRepositoryConcurrencyLimiter(MongoConcurrencyLimiter limiter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof BookRepositoryInterface)) {
+                    return bean;
+                }
+                ProxyFactory proxyFactory = new ProxyFactory();
+                proxyFactory.setTarget(bean);
+                proxyFactory.addInterface(BookRepositoryInterface.class);
+                proxyFactory.addAdvice(limiter);
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.usmobile.demo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Tags the log lines of each request with a correlation ID, taken from the X-Request-Id header when the caller
+ * sends a well-formed one and generated otherwise, and echoes it in the response.
+ * It also decides once per request whether its success-path log lines are kept, so a sampled request is logged
+ * in full and the others not at all; {@link SampledLogTurboFilter} applies the decision. Warnings and errors
+ * are always logged.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RequestCorrelationFilter extends OncePerRequestFilter {
+
+    /**
+     * The request and response header carrying the correlation ID.
+     */
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    /**
+     * The MDC key of the correlation ID, written as a field of every JSON log line.
+     */
+    public static final String REQUEST_ID_KEY = "requestId";
+
+    /**
+     * The MDC key telling whether the info lines of the current request are kept.
+     */
+    public static final String SAMPLED_KEY = "sampled";
+
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final double sampleRate;
+
+    /**
+     * Constructs a new RequestCorrelationFilter.
+     *
+     * @param sampleRate the fraction of requests, between 0 and 1, whose info lines are logged; all of them by default
+     */
+    public RequestCorrelationFilter(@Value("${books.logging.sample-rate:1.0}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+
+        MDC.put(REQUEST_ID_KEY, requestId);
+        MDC.put(SAMPLED_KEY, Boolean.toString(sampled));
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(REQUEST_ID_KEY);
+            MDC.remove(SAMPLED_KEY);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.usmobile.demo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Drops the info and lower log lines of the application loggers during requests that
+ * {@link RequestCorrelationFilter} did not sample. Runs before the logging event is built, so a dropped line
+ * costs neither message formatting nor a slot in the async appender queue.
+ * Warnings and errors, and lines logged outside a request, always pass.
+ */
+public class SampledLogTurboFilter extends TurboFilter {
+
+    private String loggerPrefix = "com.usmobile.demo";
+
+    /**
+     * Sets the prefix of the logger names the filter applies to.
+     *
+     * @param loggerPrefix the logger name prefix
+     */
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN) || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return "false".equals(MDC.get(RequestCorrelationFilter.SAMPLED_KEY)) ? FilterReply.DENY : FilterReply.NEUTRAL;
+    }
+}
@@ -1,75 +1,357 @@
 package com.usmobile.demo.controller.v1;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.usmobile.demo.core.BookBatchItemResultDTO;
+import com.usmobile.demo.core.BookBatchItemStatus;
 import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.core.BookPageDTO;
+import com.usmobile.demo.core.BookQuery;
+import com.usmobile.demo.core.BookSearchPageDTO;
+import com.usmobile.demo.core.BookSyncDTO;
+import com.usmobile.demo.core.BookWriteDTO;
+import com.usmobile.demo.service.BookChangeFeed;
+import com.usmobile.demo.service.BookPageResponseCache;
 import com.usmobile.demo.service.BookServiceInterface;
 import com.usmobile.demo.util.ApiResponse;
+import com.usmobile.demo.util.BookHelper;
+import com.usmobile.demo.util.CborHelper;
+import com.usmobile.demo.util.ETagHelper;
 import jakarta.validation.Valid;
 import org.apache.coyote.BadRequestException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 
 /**
  * Controller class for managing books.
  */
 @RestController
 @RequestMapping("/books")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BookController {
 
+    static final String PREFER = "Prefer";
+    static final String PREFERENCE_APPLIED = "Preference-Applied";
+    static final String RESPOND_ASYNC = "respond-async";
+    static final String LAST_EVENT_ID = "Last-Event-ID";
+
     /**
      * Service interface for book operations.
      */
     private final BookServiceInterface bookService;
 
-    public BookController(BookServiceInterface bookService) {
+    /**
+     * Object mapper used to write the streaming export.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Serialized listing responses, replayed without querying the database or running Jackson.
+     */
+    private final BookPageResponseCache pageCache;
+
+    /**
+     * Feed of book changes streamed to clients following the catalog.
+     */
+    private final BookChangeFeed changeFeed;
+
+    public BookController(BookServiceInterface bookService, ObjectMapper objectMapper, BookPageResponseCache pageCache,
+                          BookChangeFeed changeFeed) {
         this.bookService = bookService;
+        this.objectMapper = objectMapper;
+        this.pageCache = pageCache;
+        this.changeFeed = changeFeed;
     }
 
     /**
-     * Creates a new book.
+     * Creates a new book. With {@code Prefer: respond-async} the book is only validated and queued for a batched
+     * write, and the response is a 202 pointing to the status of the write.
      *
      * @param bookDTO The book data to create.
-     * @return A response entity with the created book data.
+     * @param prefer The Prefer header of the request.
+     * @return A response entity with the created book data and its ETag, or with the queued write.
      */
     @PostMapping
-    public ResponseEntity<ApiResponse<BookDTO>> createBook(@Valid @RequestBody BookDTO bookDTO) {
+    public ResponseEntity<ApiResponse<?>> createBook(@Valid @RequestBody BookDTO bookDTO,
+                                                     @RequestHeader(value = PREFER, required = false) String prefer) {
+        if (respondAsync(prefer)) {
+            return accepted(bookService.createBookAsync(bookDTO), "Book creation queued");
+        }
         BookDTO savedDTO = bookService.createBook(bookDTO);
         ApiResponse<BookDTO> response = new ApiResponse<>(
                 HttpStatus.CREATED.value(),
                 "Book created successfully",
                 savedDTO
         );
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(ETagHelper.forBook(savedDTO, null))
+                .body(response);
     }
 
     /**
-     * Retrieves a list of all books.
+     * Creates several books at once. Each book is validated and written independently,
+     * so invalid books and duplicate ISBNs are reported per book without aborting the batch.
      *
-     * @return A response entity with a list of book data.
+     * @param bookDTOs The books to create.
+     * @return A response entity with one result per book; 201 if all were created, 207 otherwise.
+     * @throws BadRequestException If the batch is empty or too large.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<BookBatchItemResultDTO>>> createBooks(@RequestBody List<BookDTO> bookDTOs) throws BadRequestException {
+        List<BookBatchItemResultDTO> results = bookService.createBooks(bookDTOs);
+        long created = results.stream()
+                .filter(result -> result.getStatus() == BookBatchItemStatus.CREATED)
+                .count();
+        HttpStatus status = created == results.size() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        ApiResponse<List<BookBatchItemResultDTO>> response = new ApiResponse<>(
+                status.value(),
+                String.format("%d of %d books created", created, results.size()),
+                results
+        );
+        return ResponseEntity.status(status).body(response);
+    }
+
+    /**
+     * Retrieves a page of books using keyset pagination, optionally filtered by author, title and publication
+     * date and sorted by id, title, author or publishedDate.
+     * The serialized response is cached until the next book change and sent gzip compressed to clients
+     * accepting it, so repeated listings skip both the database and JSON serialization. Clients ranking
+     * application/cbor above JSON in Accept get the page encoded as CBOR instead.
+     *
+     * @param limit The maximum number of books to return.
+     * @param after The opaque cursor returned with the previous page, omitted for the first page.
+     * @param query The filters, sort key and projection, bound from the author, titleContains, publishedFrom,
+     *              publishedTo, sort and fields query parameters.
+     * @param accept The Accept header of the request.
+     * @param acceptEncoding The Accept-Encoding header of the request.
+     * @param request The current request, checked against the weak ETag of the page.
+     * @return A response entity with the serialized page of book data and the cursor for the next page,
+     * or null once a 304 has been sent because If-None-Match matches the page.
+     * @throws BadRequestException If a parameter or the cursor is invalid.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<BookDTO>>> getAllBooks() {
-        List<BookDTO> bookDTOList = bookService.getAllBooks();
-        String message = bookDTOList.isEmpty() ? "No books found" : "Books found";
-        ApiResponse<List<BookDTO>> response = new ApiResponse<>(
+    public ResponseEntity<byte[]> getAllBooks(@RequestParam(defaultValue = "50") int limit,
+                                              @RequestParam(required = false) String after,
+                                              BookQuery query,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                              WebRequest request) throws BadRequestException {
+        boolean cbor = CborHelper.prefersCbor(accept);
+        String key = BookPageResponseCache.key(query, limit, after, cbor);
+        BookPageResponseCache.CachedPage page = pageCache.get(key);
+        if (page == null) {
+            long generation = pageCache.generation();
+            BookPageDTO bookPage = bookService.getBooksPage(query, limit, after);
+            String message = bookPage.getBooks().isEmpty() ? "No books found" : "Books found";
+            ApiResponse<BookPageDTO> response = new ApiResponse<>(
+                    HttpStatus.OK.value(),
+                    message,
+                    bookPage
+            );
+            page = pageCache.put(key, generation, response,
+                    ETagHelper.forPage(bookPage, BookHelper.parseFields(query.getFields())), cbor);
+        }
+
+        // sets the ETag header, and answers 304 with no body when the client's copy is current
+        if (request.checkNotModified(page.etag())) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .contentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT);
+        if (page.gzip() != null && acceptsGzip(acceptEncoding)) {
+            return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(page.gzip());
+        }
+        return ok.body(page.body());
+    }
+
+    /**
+     * Lists the books changed and deleted since the checkpoint of a client's previous sync, so a client keeping
+     * a copy of the catalog transfers only what changed instead of every page. Changed books are paged with
+     * {@code after}; the deleted IDs and the checkpoint to sync from next time come with the last page.
+     * Takes precedence over the listing whenever modifiedSince is given.
+     *
+     * @param modifiedSince The ISO-8601 checkpoint returned by the previous sync, or the time of a full load.
+     * @param limit The maximum number of changed books to return.
+     * @param after The opaque cursor returned with the previous page of the same sync, omitted for the first page.
+     * @return A response entity with the changed books, the deleted IDs and the next checkpoint.
+     * @throws BadRequestException If modifiedSince is malformed or older than deletions are kept, or another
+     * parameter is invalid.
+     */
+    @GetMapping(params = "modifiedSince")
+    public ResponseEntity<ApiResponse<BookSyncDTO>> getChangedBooks(@RequestParam String modifiedSince,
+                                                                    @RequestParam(defaultValue = "500") int limit,
+                                                                    @RequestParam(required = false) String after) throws BadRequestException {
+        BookSyncDTO changes = bookService.getChangedBooks(modifiedSince, limit, after);
+        String message = changes.getBooks().isEmpty() && changes.getDeletedIds().isEmpty()
+                ? "No changes found" : "Changes found";
+        ApiResponse<BookSyncDTO> response = new ApiResponse<>(
                 HttpStatus.OK.value(),
                 message,
-                bookDTOList
+                changes
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Tells whether an Accept-Encoding header allows a gzip response.
+     *
+     * @param acceptEncoding the header value, or null
+     * @return true if gzip is listed without a zero quality value
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equals("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Searches books by title and author with an indexed query.
+     *
+     * @param q    The words to search for, or the beginning of a title or author in PREFIX mode.
+     * @param mode TEXT (default) for a relevance-ranked text search, PREFIX for a case-insensitive prefix match.
+     * @param page The zero-based page number.
+     * @param size The page size.
+     * @return A response entity with the page of matching books.
+     * @throws BadRequestException If the query is blank, the mode unknown or the page out of range.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<BookSearchPageDTO>> searchBooks(@RequestParam(required = false) String q,
+                                                                      @RequestParam(defaultValue = "TEXT") String mode,
+                                                                      @RequestParam(defaultValue = "0") int page,
+                                                                      @RequestParam(defaultValue = "20") int size) throws BadRequestException {
+        BookSearchPageDTO results = bookService.searchBooks(q, mode, page, size);
+        String message = results.getBooks().isEmpty() ? "No books found" : "Books found";
+        ApiResponse<BookSearchPageDTO> response = new ApiResponse<>(
+                HttpStatus.OK.value(),
+                message,
+                results
+        );
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
+    /**
+     * Completes a title or author prefix for typeahead, served from memory.
+     *
+     * @param prefix The text typed so far.
+     * @param limit  The maximum number of completions.
+     * @return A response entity with the completions, most common first.
+     * @throws BadRequestException If the limit is out of range.
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<ApiResponse<List<String>>> autocomplete(@RequestParam(defaultValue = "") String prefix,
+                                                                  @RequestParam(defaultValue = "10") int limit) throws BadRequestException {
+        List<String> completions = bookService.autocomplete(prefix, limit);
+        ApiResponse<List<String>> response = new ApiResponse<>(
+                HttpStatus.OK.value(),
+                completions.isEmpty() ? "No completions found" : "Completions found",
+                completions
         );
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
+    /**
+     * Streams book changes as Server-Sent Events, so clients can keep a copy of the catalog up to date
+     * instead of polling GET /books. Each event is named created, updated or deleted and carries the book.
+     * A client reconnecting with Last-Event-ID first receives the changes it missed, or a single reset event
+     * if they are no longer available, after which it should reload the catalog.
+     *
+     * @param lastEventId The ID of the last event received before reconnecting.
+     * @return The emitter streaming the changes.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
+        return changeFeed.subscribe(lastEventId);
+    }
+
+    /**
+     * Exports the whole catalog as newline-delimited JSON, one book per line.
+     * Books are written as they are read from the database cursor, so heap usage stays constant.
+     *
+     * @return A response entity streaming the books.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        // the generator buffers and flushes on its own; flushing after every book would emit one chunk per line
+        ObjectWriter writer = objectMapper.writerFor(BookDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<BookDTO> books = bookService.streamAllBooks();
+                 JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                generator.setRootValueSeparator(new SerializedString("\n"));
+
+                Iterator<BookDTO> iterator = books.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                }
+                generator.writeRaw('\n');
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * Retrieves a book by its ID.
      *
-     * @param id The ID of the book to retrieve.
-     * @return A response entity with the book data.
+     * @param id     The ID of the book to retrieve.
+     * @param fields The comma-separated properties to return, e.g. id,title; all properties when omitted.
+     * @param request The current request, checked against the ETag of the book.
+     * @return A response entity with the book data, or null once a 304 has been sent because If-None-Match
+     * matches the book.
+     * @throws BadRequestException If a requested field is not a book property.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<BookDTO>> getBookById(@PathVariable String id) {
-        BookDTO bookDTO = bookService.findBookById(id);
+    public ResponseEntity<ApiResponse<BookDTO>> getBookById(@PathVariable String id,
+                                                            @RequestParam(required = false) String fields,
+                                                            WebRequest request) throws BadRequestException {
+        BookDTO bookDTO = bookService.findBookById(id, fields);
+        // sets the ETag header, and answers 304 without serialising the book when the client's copy is current
+        if (request.checkNotModified(ETagHelper.forBook(bookDTO, BookHelper.parseFields(fields)))) {
+            return null;
+        }
+        ApiResponse<BookDTO> response = new ApiResponse<>(
+                HttpStatus.OK.value(),
+                "Book retrieved successfully",
+                bookDTO
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Retrieves a book by its ISBN.
+     *
+     * @param isbn The ISBN of the book to retrieve.
+     * @return A response entity with the book data.
+     */
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<ApiResponse<BookDTO>> getBookByIsbn(@PathVariable String isbn) {
+        BookDTO bookDTO = bookService.findBookByIsbn(isbn);
         ApiResponse<BookDTO> response = new ApiResponse<>(
                 HttpStatus.OK.value(),
                 "Book retrieved successfully",
@@ -82,11 +364,13 @@ public class BookController {
      * Deletes a book by its ID.
      *
      * @param id The ID of the book to delete.
+     * @param ifMatch The ETag of the book as last read; the book is only deleted if it has not changed since.
      * @return A response entity with a boolean indicating whether the book was deleted.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<Boolean>> deleteBook(@PathVariable String id) {
-        boolean deleted = bookService.deleteBook(id);
+    public ResponseEntity<ApiResponse<Boolean>> deleteBook(@PathVariable String id,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        boolean deleted = bookService.deleteBook(id, ETagHelper.expectedVersion(ifMatch));
 
         ApiResponse<Boolean> response = new ApiResponse<>(
                 HttpStatus.OK.value(),
@@ -98,17 +382,47 @@ public class BookController {
     }
 
     /**
-     * Updates a book.
+     * Deletes several books by their IDs in one operation. IDs that match no book are ignored.
+     *
+     * @param ids The IDs of the books to delete.
+     * @return A response entity with the number of books deleted.
+     * @throws BadRequestException If the list is empty or too large.
+     */
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<Long>> deleteBooks(@RequestBody List<String> ids) throws BadRequestException {
+        long deleted = bookService.deleteBooks(ids);
+
+        ApiResponse<Long> response = new ApiResponse<>(
+                HttpStatus.OK.value(),
+                String.format("%d books deleted", deleted),
+                deleted
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Updates a book. PUT and PATCH both apply a partial update: only the fields present in the body are
+     * validated and changed. With {@code Prefer: respond-async} and no If-Match, the update is validated and
+     * queued for a batched write, and the response is a 202 pointing to the status of the write.
      *
      * @param bookDTO The book data to update.
      * @param id The ID of the book to update.
-     * @return A response entity with the updated book data.
+     * @param ifMatch The ETag of the book as last read; the book is only updated if it has not changed since.
+     * @param prefer The Prefer header of the request.
+     * @return A response entity with the updated book data and its new ETag, or with the queued write.
      * @throws BadRequestException If the request is invalid.
      */
-    @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse<BookDTO>> updateBook(@RequestBody BookDTO bookDTO, @PathVariable String id) throws BadRequestException {
+    @RequestMapping(path = "/{id}", method = {RequestMethod.PUT, RequestMethod.PATCH})
+    public ResponseEntity<ApiResponse<?>> updateBook(@RequestBody BookDTO bookDTO, @PathVariable String id,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                     @RequestHeader(value = PREFER, required = false) String prefer) throws BadRequestException {
         bookDTO.setId(id);
-        BookDTO updatedBook = bookService.updateBook(bookDTO);
+        // conditional updates need the current version, so they are always applied synchronously
+        if (ifMatch == null && respondAsync(prefer)) {
+            return accepted(bookService.updateBookAsync(bookDTO), "Book update queued");
+        }
+        BookDTO updatedBook = bookService.updateBook(bookDTO, ETagHelper.expectedVersion(ifMatch));
 
         ApiResponse<BookDTO> response = new ApiResponse<>(
                 HttpStatus.OK.value(),
@@ -116,6 +430,53 @@ public class BookController {
                 updatedBook
         );
 
+        return ResponseEntity.ok()
+                .eTag(ETagHelper.forBook(updatedBook, null))
+                .body(response);
+    }
+
+    /**
+     * Retrieves the status of a create or update accepted with 202.
+     *
+     * @param trackingId The tracking ID returned when the write was accepted.
+     * @return A response entity with the write: QUEUED until it is written, then its outcome.
+     */
+    @GetMapping("/writes/{trackingId}")
+    public ResponseEntity<ApiResponse<BookWriteDTO>> getWrite(@PathVariable String trackingId) {
+        ApiResponse<BookWriteDTO> response = new ApiResponse<>(
+                HttpStatus.OK.value(),
+                "Write status retrieved successfully",
+                bookService.findWrite(trackingId)
+        );
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds the 202 response of a queued write, with the location of its status.
+     *
+     * @param write   The queued write.
+     * @param message The response message.
+     * @return The response entity.
+     */
+    private static ResponseEntity<ApiResponse<?>> accepted(BookWriteDTO write, String message) {
+        ApiResponse<BookWriteDTO> response = new ApiResponse<>(
+                HttpStatus.ACCEPTED.value(),
+                message,
+                write
+        );
+        return ResponseEntity.accepted()
+                .location(URI.create("/books/writes/" + write.getTrackingId()))
+                .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                .body(response);
+    }
+
+    /**
+     * Tells whether the client asked for an asynchronous response (RFC 7240).
+     *
+     * @param prefer The Prefer header, or null.
+     * @return true if the preferences include respond-async.
+     */
+    private static boolean respondAsync(String prefer) {
+        return prefer != null && prefer.toLowerCase(Locale.ROOT).contains(RESPOND_ASYNC);
+    }
+}
@@ -0,0 +1,210 @@
+package com.usmobile.demo.controller.v1;
+
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.core.BookPageDTO;
+import com.usmobile.demo.core.BookQuery;
+import com.usmobile.demo.core.BookSearchPageDTO;
+import com.usmobile.demo.service.ReactiveBookServiceInterface;
+import com.usmobile.demo.util.ApiResponse;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive controller class for managing books, exposing the same /books contract as {@link BookController}.
+ * Only registered when the application runs on WebFlux (the reactive profile).
+ */
+@RestController
+@RequestMapping("/books")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookController {
+
+    /**
+     * Reactive service interface for book operations.
+     */
+    private final ReactiveBookServiceInterface bookService;
+
+    public ReactiveBookController(ReactiveBookServiceInterface bookService) {
+        this.bookService = bookService;
+    }
+
+    /**
+     * Creates a new book.
+     *
+     * @param bookDTO The book data to create.
+     * @return A response entity with the created book data.
+     */
+    @PostMapping
+    public Mono<ResponseEntity<ApiResponse<BookDTO>>> createBook(@Valid @RequestBody BookDTO bookDTO) {
+        return bookService.createBook(bookDTO)
+                .map(savedDTO -> ResponseEntity.status(HttpStatus.CREATED).body(new ApiResponse<>(
+                        HttpStatus.CREATED.value(),
+                        "Book created successfully",
+                        savedDTO
+                )));
+    }
+
+    /**
+     * Retrieves a page of books using keyset pagination, optionally filtered by author, title and publication
+     * date and sorted by id, title, author or publishedDate.
+     *
+     * @param limit The maximum number of books to return.
+     * @param after The opaque cursor returned with the previous page, omitted for the first page.
+     * @param query The filters, sort key and projection, bound from the author, titleContains, publishedFrom,
+     *              publishedTo, sort and fields query parameters.
+     * @return A response entity with the page of book data and the cursor for the next page.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<ApiResponse<BookPageDTO>>> getAllBooks(@RequestParam(defaultValue = "50") int limit,
+                                                                      @RequestParam(required = false) String after,
+                                                                      BookQuery query) {
+        return bookService.getBooksPage(query, limit, after)
+                .map(bookPage -> ResponseEntity.ok(new ApiResponse<>(
+                        HttpStatus.OK.value(),
+                        bookPage.getBooks().isEmpty() ? "No books found" : "Books found",
+                        bookPage
+                )));
+    }
+
+    /**
+     * Searches books by title and author with an indexed query.
+     *
+     * @param q    The words to search for, or the beginning of a title or author in PREFIX mode.
+     * @param mode TEXT (default) for a relevance-ranked text search, PREFIX for a case-insensitive prefix match.
+     * @param page The zero-based page number.
+     * @param size The page size.
+     * @return A response entity with the page of matching books.
+     */
+    @GetMapping("/search")
+    public Mono<ResponseEntity<ApiResponse<BookSearchPageDTO>>> searchBooks(@RequestParam(required = false) String q,
+                                                                            @RequestParam(defaultValue = "TEXT") String mode,
+                                                                            @RequestParam(defaultValue = "0") int page,
+                                                                            @RequestParam(defaultValue = "20") int size) {
+        return bookService.searchBooks(q, mode, page, size)
+                .map(results -> ResponseEntity.ok(new ApiResponse<>(
+                        HttpStatus.OK.value(),
+                        results.getBooks().isEmpty() ? "No books found" : "Books found",
+                        results
+                )));
+    }
+
+    /**
+     * Completes a title or author prefix for typeahead, served from memory.
+     *
+     * @param prefix The text typed so far.
+     * @param limit  The maximum number of completions.
+     * @return A response entity with the completions, most common first.
+     */
+    @GetMapping("/autocomplete")
+    public Mono<ResponseEntity<ApiResponse<List<String>>>> autocomplete(@RequestParam(defaultValue = "") String prefix,
+                                                                        @RequestParam(defaultValue = "10") int limit) {
+        return bookService.autocomplete(prefix, limit)
+                .map(completions -> ResponseEntity.ok(new ApiResponse<>(
+                        HttpStatus.OK.value(),
+                        completions.isEmpty() ? "No completions found" : "Completions found",
+                        completions
+                )));
+    }
+
+    /**
+     * Exports the whole catalog as newline-delimited JSON, one book per line, as fast as the client reads it.
+     *
+     * @return The stream of books.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookDTO> exportBooks() {
+        return bookService.streamAllBooks();
+    }
+
+    /**
+     * Retrieves a book by its ID.
+     *
+     * @param id     The ID of the book to retrieve.
+     * @param fields The comma-separated properties to return, e.g. id,title; all properties when omitted.
+     * @return A response entity with the book data.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ApiResponse<BookDTO>>> getBookById(@PathVariable String id,
+                                                                  @RequestParam(required = false) String fields) {
+        return bookService.findBookById(id, fields)
+                .map(bookDTO -> ResponseEntity.ok(new ApiResponse<>(
+                        HttpStatus.OK.value(),
+                        "Book retrieved successfully",
+                        bookDTO
+                )));
+    }
+
+    /**
+     * Retrieves a book by its ISBN.
+     *
+     * @param isbn The ISBN of the book to retrieve.
+     * @return A response entity with the book data.
+     */
+    @GetMapping("/isbn/{isbn}")
+    public Mono<ResponseEntity<ApiResponse<BookDTO>>> getBookByIsbn(@PathVariable String isbn) {
+        return bookService.findBookByIsbn(isbn)
+                .map(bookDTO -> ResponseEntity.ok(new ApiResponse<>(
+                        HttpStatus.OK.value(),
+                        "Book retrieved successfully",
+                        bookDTO
+                )));
+    }
+
+    /**
+     * Deletes a book by its ID.
+     *
+     * @param id The ID of the book to delete.
+     * @return A response entity with a boolean indicating whether the book was deleted.
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<ApiResponse<Boolean>>> deleteBook(@PathVariable String id) {
+        return bookService.deleteBook(id)
+                .map(deleted -> ResponseEntity.ok(new ApiResponse<>(
+                        HttpStatus.OK.value(),
+                        "Book deleted successfully",
+                        deleted
+                )));
+    }
+
+    /**
+     * Deletes several books by their IDs in one operation. IDs that match no book are ignored.
+     *
+     * @param ids The IDs of the books to delete.
+     * @return A response entity with the number of books deleted.
+     */
+    @DeleteMapping
+    public Mono<ResponseEntity<ApiResponse<Long>>> deleteBooks(@RequestBody List<String> ids) {
+        return bookService.deleteBooks(ids)
+                .map(deleted -> ResponseEntity.ok(new ApiResponse<>(
+                        HttpStatus.OK.value(),
+                        String.format("%d books deleted", deleted),
+                        deleted
+                )));
+    }
+
+    /**
+     * Updates a book. PUT and PATCH both apply a partial update: only the fields present in the body are
+     * validated and changed.
+     *
+     * @param bookDTO The book data to update.
+     * @param id The ID of the book to update.
+     * @return A response entity with the updated book data.
+     */
+    @RequestMapping(path = "/{id}", method = {RequestMethod.PUT, RequestMethod.PATCH})
+    public Mono<ResponseEntity<ApiResponse<BookDTO>>> updateBook(@RequestBody BookDTO bookDTO, @PathVariable String id) {
+        bookDTO.setId(id);
+        return bookService.updateBook(bookDTO)
+                .map(updatedBook -> ResponseEntity.ok(new ApiResponse<>(
+                        HttpStatus.OK.value(),
+                        "Book updated successfully",
+                        updatedBook
+                )));
+    }
+}
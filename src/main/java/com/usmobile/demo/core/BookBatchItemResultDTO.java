@@ -0,0 +1,36 @@
+package com.usmobile.demo.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * class: BookBatchItemResult
+ * Result of one book of a batch create request, reported at the book's position in the request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBatchItemResultDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private int index;
+
+    private BookBatchItemStatus status;
+
+    /**
+     * ID of the created book, null unless the status is CREATED.
+     */
+    private String id;
+
+    /**
+     * Reason the book was not created, null if it was.
+     */
+    private String message;
+
+}
@@ -0,0 +1,11 @@
+package com.usmobile.demo.core;
+
+/**
+ * Outcome of a single book within a batch create request.
+ */
+public enum BookBatchItemStatus {
+    CREATED,
+    DUPLICATE_ISBN,
+    INVALID,
+    FAILED
+}
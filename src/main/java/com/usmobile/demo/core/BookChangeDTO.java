@@ -0,0 +1,34 @@
+package com.usmobile.demo.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * class: BookChange
+ * One event of the GET /books/changes feed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookChangeDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * CREATED, UPDATED or DELETED.
+     */
+    private String type;
+
+    private String id;
+
+    /**
+     * The book as stored after the change, null when it was deleted.
+     */
+    private BookDTO book;
+
+}
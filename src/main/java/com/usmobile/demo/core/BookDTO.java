@@ -1,19 +1,24 @@
 package com.usmobile.demo.core;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.LocalDate;
 
 /**
  * class: Book
+ * Null properties are left out of the JSON, so a book projected with fields= only carries the requested ones.
  */
 
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class BookDTO implements Serializable {
 
     @Serial
@@ -35,4 +40,23 @@ public class BookDTO implements Serializable {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
     private LocalDate publishedDate;
 
+    /**
+     * The stored version of the book. Returned to clients but never read from a request body;
+     * conditional writes carry it in the If-Match header instead.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    /**
+     * When the book was first stored, maintained by the server like the version.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant createdAt;
+
+    /**
+     * When the book was last written, maintained by the server like the version.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModified;
+
 }
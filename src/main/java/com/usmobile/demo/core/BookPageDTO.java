@@ -0,0 +1,30 @@
+package com.usmobile.demo.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * class: BookPage
+ * A single keyset page of books plus the opaque cursor to request the next one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookPageDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private List<BookDTO> books;
+
+    /**
+     * Opaque cursor to pass as {@code after} for the next page, or null when this is the last page.
+     */
+    private String nextCursor;
+
+}
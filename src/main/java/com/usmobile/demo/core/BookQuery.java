@@ -0,0 +1,53 @@
+package com.usmobile.demo.core;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * class: BookQuery
+ * Filters and sort order of a book listing, bound from the query parameters of GET /books.
+ * Every filter is optional; the filters given are combined with AND.
+ */
+@Data
+public class BookQuery implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Exact author, ignoring case.
+     */
+    private String author;
+
+    /**
+     * Text the title must contain, ignoring case.
+     */
+    private String titleContains;
+
+    /**
+     * Earliest publication date, inclusive.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate publishedFrom;
+
+    /**
+     * Latest publication date, inclusive.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate publishedTo;
+
+    /**
+     * Sort key: id, title, author or publishedDate, prefixed with - for descending order.
+     */
+    private String sort = "id";
+
+    /**
+     * Comma-separated book properties to return, e.g. id,title; all properties when absent. The ID is always returned.
+     */
+    private String fields;
+
+}
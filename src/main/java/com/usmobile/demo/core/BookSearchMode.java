@@ -0,0 +1,11 @@
+package com.usmobile.demo.core;
+
+/**
+ * How the query of a book search is matched.
+ * TEXT runs a relevance-ranked search on the text index over title and author,
+ * PREFIX matches titles or authors starting with the query, ignoring case.
+ */
+public enum BookSearchMode {
+    TEXT,
+    PREFIX
+}
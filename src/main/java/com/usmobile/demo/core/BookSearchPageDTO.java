@@ -0,0 +1,34 @@
+package com.usmobile.demo.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * class: BookSearchPage
+ * One page of search results, ordered by relevance for text searches and by title for prefix searches.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSearchPageDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private List<BookDTO> books;
+
+    private int page;
+
+    private int size;
+
+    /**
+     * Whether a further page of results exists.
+     */
+    private boolean hasNext;
+
+}
@@ -0,0 +1,45 @@
+package com.usmobile.demo.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * class: BookSync
+ * The books changed and deleted since a client's last sync, up to a checkpoint to sync from next time.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSyncDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Books created or updated since modifiedSince, oldest change first.
+     */
+    private List<BookDTO> books;
+
+    /**
+     * IDs of the books deleted since modifiedSince; only listed on the last page of a sync.
+     */
+    private List<String> deletedIds;
+
+    /**
+     * Opaque cursor to pass as {@code after}, with the same modifiedSince, for the next page of changed books,
+     * or null when this is the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * The time the changes are listed up to, to pass as modifiedSince on the next sync once nextCursor is null.
+     */
+    private Instant checkpoint;
+
+}
@@ -0,0 +1,36 @@
+package com.usmobile.demo.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * class: BookWrite
+ * Tracks a create or update accepted with 202 until the write-behind queue has written it to the database.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookWriteDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String trackingId;
+
+    /**
+     * ID of the created or updated book. Assigned when a create is accepted, so it is known before the write.
+     */
+    private String bookId;
+
+    private BookWriteStatus status;
+
+    /**
+     * Reason the write was not applied, null otherwise.
+     */
+    private String message;
+
+}
@@ -0,0 +1,12 @@
+package com.usmobile.demo.core;
+
+/**
+ * Outcome of a create or update accepted for write-behind.
+ */
+public enum BookWriteStatus {
+    QUEUED,
+    APPLIED,
+    DUPLICATE_ISBN,
+    NOT_FOUND,
+    FAILED
+}
@@ -1,22 +1,44 @@
 package com.usmobile.demo.entity;
 
+import com.usmobile.demo.util.BookHelper;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
+/**
+ * The compound indexes back the filters and sort keys of the book listing, each ending with _id so that
+ * keyset pagination on any sort key is an index range scan. author_id and title_id also serve prefix search,
+ * and modified_id the changes listed to clients syncing with modifiedSince.
+ */
 @Data
 @Document(collection = "book")
+@CompoundIndexes({
+        @CompoundIndex(name = "author_published_id", def = "{'authorKey': 1, 'publishedDate': 1, '_id': 1}"),
+        @CompoundIndex(name = "author_id", def = "{'authorKey': 1, '_id': 1}"),
+        @CompoundIndex(name = "published_id", def = "{'publishedDate': 1, '_id': 1}"),
+        @CompoundIndex(name = "title_id", def = "{'titleKey': 1, '_id': 1}"),
+        @CompoundIndex(name = "modified_id", def = "{'lastModified': 1, '_id': 1}")
+})
 public class BookDAO {
 
 
     @Id
     private String id;
 
+    @TextIndexed(weight = 2)
     private String title;
 
+    @TextIndexed
     private String author;
 
     @Indexed(unique = true)
@@ -24,5 +46,42 @@ public class BookDAO {
 
     private LocalDate publishedDate;
 
+    /**
+     * Incremented on every write; set to 0 by the first save and exposed to clients as the book's ETag.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Set by the first save, see {@link com.usmobile.demo.config.BookTimestampConfig}.
+     */
+    private Instant createdAt;
+
+    /**
+     * Set by every insert, save and update, and compared with modifiedSince by incremental syncs.
+     */
+    private Instant lastModified;
+
+    /**
+     * Lower-cased title, kept in sync by {@link #setTitle(String)} and backing indexed prefix search.
+     */
+    @Setter(AccessLevel.NONE)
+    private String titleKey;
+
+    /**
+     * Lower-cased author, kept in sync by {@link #setAuthor(String)} and backing indexed prefix search.
+     */
+    @Setter(AccessLevel.NONE)
+    private String authorKey;
+
+    public void setTitle(String title) {
+        this.title = title;
+        this.titleKey = BookHelper.toSearchKey(title);
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+        this.authorKey = BookHelper.toSearchKey(author);
+    }
 
 }
@@ -0,0 +1,40 @@
+package com.usmobile.demo.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Records that a book was deleted, so clients syncing with modifiedSince learn about deletions as well as changes.
+ * Kept in its own collection rather than as a flag on BookDAO, so that reads, the unique ISBN index and
+ * re-creating a deleted ISBN are unaffected. MongoDB removes tombstones once they are {@link #RETENTION} old.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "bookTombstone")
+public class BookTombstoneDAO {
+
+    /**
+     * How long deletions are kept; a sync from further back cannot tell which books were deleted.
+     */
+    public static final String RETENTION = "30d";
+
+    /**
+     * The ID of the deleted book.
+     */
+    @Id
+    private String id;
+
+    /**
+     * When the book was deleted. The TTL index also serves the range queries of incremental syncs.
+     */
+    @Indexed(expireAfter = RETENTION)
+    private Instant deletedAt;
+
+}
@@ -6,11 +6,29 @@ package com.usmobile.demo.exception;
  */
 public enum ErrorMessageEnum {
     BOOK_NOT_FOUND("Book with ID %s not found"),
+    BOOK_WITH_ISBN_NOT_FOUND("Book with ISBN %s not found"),
     ISBN_ALREADY_EXISTS("ISBN '%s' already exists"),
     EMPTY_UPDATE_REQUEST("At least one field must be provided for update. Null values not accepted"),
     UNEXPECTED_ERROR_OCCURRED("Unexpected error occurred while %s"),
     INVALID_BOOK_DATA("Invalid book data: %s"),
-    BOOK_DELETION_ERROR("Error deleting book with ID %s");
+    BOOK_DELETION_ERROR("Error deleting book with ID %s"),
+    BOOKS_DELETION_ERROR("Error deleting %d books"),
+    INVALID_CURSOR("Invalid pagination cursor '%s'"),
+    INVALID_PAGE_LIMIT("limit must be between 1 and %d"),
+    INVALID_BATCH_SIZE("A batch must contain between 1 and %d books"),
+    BATCH_ITEM_WRITE_ERROR("Error writing book: %s"),
+    DATABASE_BUSY("Too many concurrent database operations, please retry later"),
+    INVALID_SEARCH_QUERY("Search query q must not be blank"),
+    INVALID_SEARCH_MODE("Invalid search mode '%s', expected TEXT or PREFIX"),
+    INVALID_SEARCH_PAGE("page must be 0 or greater and size between 1 and %d"),
+    INVALID_SORT("Invalid sort '%s', expected id, title, author or publishedDate, optionally prefixed with -"),
+    INVALID_DATE_RANGE("publishedFrom must not be after publishedTo"),
+    INVALID_FIELDS("Unknown field '%s', expected id, title, author, isbn or publishedDate"),
+    BOOK_VERSION_MISMATCH("Book with ID %s has been modified since version %s was read"),
+    WRITE_QUEUE_FULL("Too many pending writes, please retry later"),
+    WRITE_NOT_FOUND("Write with tracking ID %s not found or expired"),
+    INVALID_MODIFIED_SINCE("Invalid modifiedSince '%s', expected an ISO-8601 instant such as 2024-01-31T10:15:30Z"),
+    SYNC_CHECKPOINT_EXPIRED("modifiedSince must be within the last %d days, deletions are not kept longer; reload the catalog");
 
     private final String message;
 
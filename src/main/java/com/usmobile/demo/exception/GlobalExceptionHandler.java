@@ -1,14 +1,18 @@
 package com.usmobile.demo.exception;
 
 import com.usmobile.demo.util.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.ConstraintViolationException;
 import org.apache.coyote.BadRequestException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import java.time.LocalDate;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -19,10 +23,26 @@ public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final MeterRegistry meterRegistry;
 
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Counts an error response in books.errors, by error code and exception type.
+     */
+    private void recordError(Exception e, String errorCode) {
+        Counter.builder("books.errors")
+                .tag("code", errorCode)
+                .tag("exception", e.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
 
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ApiResponse<?>> handleJsonParseException(HttpMessageNotReadableException ex) {
+        recordError(ex, "FORMAT_ERROR");
         String message = "Invalid input format";
 
         if (ex.getCause() instanceof com.fasterxml.jackson.databind.exc.InvalidFormatException) {
@@ -46,6 +66,7 @@ public class GlobalExceptionHandler {
     // service exception
     @ExceptionHandler(ServiceException.class)
     public ResponseEntity<ApiResponse<?>> handleServiceException(ServiceException e) {
+        recordError(e, "SERVICE_ERROR");
         ApiResponse<?> response = new ApiResponse<>(
                 HttpStatus.INTERNAL_SERVER_ERROR.value(),
                 e.getMessage(),
@@ -57,6 +78,7 @@ public class GlobalExceptionHandler {
     // Duplicate ISBN exception
     @ExceptionHandler(DuplicateIsbnException.class)
     public ResponseEntity<ApiResponse<?>> handleDuplicateIsbnException(DuplicateIsbnException e) {
+        recordError(e, "DUPLICATE_ISBN");
         ApiResponse<?> response = new ApiResponse<>(
                 HttpStatus.BAD_REQUEST.value(),
                 e.getMessage(),
@@ -66,9 +88,38 @@ public class GlobalExceptionHandler {
     }
 
 
+    // No database permit available in time, the client should retry
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<?>> handleServiceUnavailableException(ServiceUnavailableException e) {
+        recordError(e, "SERVICE_UNAVAILABLE");
+        ApiResponse<?> response = new ApiResponse<>(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                e.getMessage(),
+                "SERVICE_UNAVAILABLE"
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    // Write-behind queue full, the client should slow down
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiResponse<?>> handleTooManyRequestsException(TooManyRequestsException e) {
+        recordError(e, "TOO_MANY_REQUESTS");
+        ApiResponse<?> response = new ApiResponse<>(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                e.getMessage(),
+                "TOO_MANY_REQUESTS"
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
     // Entity not found exception
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<ApiResponse<?>> handleEntityNotFoundException(EntityNotFoundException e) {
+        recordError(e, "ENTITY_NOT_FOUND");
         ApiResponse<?> response = new ApiResponse<>(
                 HttpStatus.NOT_FOUND.value(),
                 e.getMessage(),
@@ -77,9 +128,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    // If-Match no longer matches the stored version of the book
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiResponse<?>> handlePreconditionFailedException(PreconditionFailedException e) {
+        recordError(e, "PRECONDITION_FAILED");
+        ApiResponse<?> response = new ApiResponse<>(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                e.getMessage(),
+                "PRECONDITION_FAILED"
+        );
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
+
     // Validation exception
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<?>> handleValidationExceptions(MethodArgumentNotValidException e) {
+        recordError(e, "VALIDATION_ERROR");
         String errorMessage = e.getBindingResult().getFieldErrors().stream()
                 .map(fieldError -> fieldError.getDefaultMessage() != null ? fieldError.getDefaultMessage() : "Unknown error")
                 .findFirst()
@@ -94,12 +158,31 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    // Validation exception raised by the reactive controller
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiResponse<?>> handleWebExchangeBindException(WebExchangeBindException e) {
+        recordError(e, "VALIDATION_ERROR");
+        String errorMessage = e.getFieldErrors().stream()
+                .map(fieldError -> fieldError.getDefaultMessage() != null ? fieldError.getDefaultMessage() : "Unknown error")
+                .findFirst()
+                .orElse("Validation failed");
+
+        ApiResponse<?> response = new ApiResponse<>(
+                HttpStatus.BAD_REQUEST.value(),
+                errorMessage,
+                "VALIDATION_ERROR"
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
     /**
      *ConstraintViolationException used for partial updates
      *  since controller method put does not have @valid annotation
      */
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ApiResponse<?>> handleConstraintViolationException(ConstraintViolationException ex) {
+        recordError(ex, "VALIDATION_ERROR");
         String errorMessage = ex.getConstraintViolations().stream()
                 .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
                 .collect(Collectors.joining(", "));
@@ -116,6 +199,7 @@ public class GlobalExceptionHandler {
     //General exception to catch any other exceptions
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<?>> handleGeneralException(Exception e) {
+        recordError(e, "INTERNAL_SERVER_ERROR");
         ApiResponse<?> response = new ApiResponse<>(
                 HttpStatus.INTERNAL_SERVER_ERROR.value(),
                 "An unexpected error occurred",
@@ -130,6 +214,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ApiResponse<?>> handleBadRequestException(BadRequestException e) {
+        recordError(e, "BAD_REQUEST");
         ApiResponse<?> response = new ApiResponse<>(
                 HttpStatus.BAD_REQUEST.value(),
                 e.getMessage(),
@@ -0,0 +1,18 @@
+package com.usmobile.demo.exception;
+
+
+
+/**
+ * Exception thrown when a conditional write finds the book at another version than the client expected.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    /**
+     * Constructs a new PreconditionFailedException with the specified message.
+     *
+     * @param message the detail message
+     */
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
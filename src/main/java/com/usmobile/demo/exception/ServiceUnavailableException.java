@@ -0,0 +1,18 @@
+package com.usmobile.demo.exception;
+
+
+/**
+ * Exception thrown when a request cannot be served right now because a shared resource is saturated.
+ * Clients may retry it later.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    /**
+     * Constructs a new ServiceUnavailableException with the specified message.
+     *
+     * @param message the detail message
+     */
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.usmobile.demo.exception;
+
+
+/**
+ * Exception thrown when a request is refused because a bounded queue is full.
+ * Unlike {@link ServiceUnavailableException}, the client is the one expected to slow down.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    /**
+     * Constructs a new TooManyRequestsException with the specified message.
+     *
+     * @param message the detail message
+     */
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
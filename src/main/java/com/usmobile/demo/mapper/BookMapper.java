@@ -9,7 +9,8 @@ import org.springframework.stereotype.Component;
 
 /**
  * Mapper class responsible for converting between BookDTO and BookDAO objects.
- * Uses ModelMapper to perform the mapping.
+ * BookDTO and BookDAO are mapped with explicit field copies, since these conversions sit on every read path.
+ * ModelMapper is kept as a fallback for type pairs that have no explicit mapping.
  */
 @Component
 public class BookMapper {
@@ -17,7 +18,7 @@ public class BookMapper {
     private final ModelMapper modelMapper;
 
     /**
-     * Constructs a new BookMapper instance and configures the ModelMapper.
+     * Constructs a new BookMapper instance and configures the fallback ModelMapper.
      * The ModelMapper is configured to ignore null values and enable field matching.
      */
     public BookMapper() {
@@ -34,19 +35,56 @@ public class BookMapper {
      * Maps a BookDTO object to a BookDAO object.
      *
      * @param bookDTO the BookDTO object to map
-     * @return the mapped BookDAO object
+     * @return the mapped BookDAO object, or null if the given object is null
      */
     public BookDAO toDAO(BookDTO bookDTO) {
-        return modelMapper.map(bookDTO, BookDAO.class);
+        if (bookDTO == null) {
+            return null;
+        }
+        BookDAO bookDAO = new BookDAO();
+        bookDAO.setId(bookDTO.getId());
+        bookDAO.setTitle(bookDTO.getTitle());
+        bookDAO.setAuthor(bookDTO.getAuthor());
+        bookDAO.setIsbn(bookDTO.getIsbn());
+        bookDAO.setPublishedDate(bookDTO.getPublishedDate());
+        bookDAO.setVersion(bookDTO.getVersion());
+        bookDAO.setCreatedAt(bookDTO.getCreatedAt());
+        bookDAO.setLastModified(bookDTO.getLastModified());
+        return bookDAO;
     }
 
     /**
      * Maps a BookDAO object to a BookDTO object.
      *
      * @param bookDAO the BookDAO object to map
-     * @return the mapped BookDTO object
+     * @return the mapped BookDTO object, or null if the given object is null
      */
     public BookDTO toCore(BookDAO bookDAO) {
-        return modelMapper.map(bookDAO, BookDTO.class);
+        if (bookDAO == null) {
+            return null;
+        }
+        BookDTO bookDTO = new BookDTO();
+        bookDTO.setId(bookDAO.getId());
+        bookDTO.setTitle(bookDAO.getTitle());
+        bookDTO.setAuthor(bookDAO.getAuthor());
+        bookDTO.setIsbn(bookDAO.getIsbn());
+        bookDTO.setPublishedDate(bookDAO.getPublishedDate());
+        bookDTO.setVersion(bookDAO.getVersion());
+        bookDTO.setCreatedAt(bookDAO.getCreatedAt());
+        bookDTO.setLastModified(bookDAO.getLastModified());
+        return bookDTO;
     }
-}
\ No newline at end of file
+
+    /**
+     * Maps an object to the given type through the reflective ModelMapper.
+     * Only meant for type pairs without an explicit mapping; null source values are skipped.
+     *
+     * @param source          the object to map
+     * @param destinationType the type to map to
+     * @param <T>             the destination type
+     * @return the mapped object
+     */
+    public <T> T map(Object source, Class<T> destinationType) {
+        return modelMapper.map(source, destinationType);
+    }
+}
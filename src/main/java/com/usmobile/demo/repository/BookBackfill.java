@@ -0,0 +1,88 @@
+package com.usmobile.demo.repository;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Brings books stored by earlier versions of the service up to the current document shape at startup:
+ * search keys for prefix search, a version for ETags and If-Match, and the timestamps read by incremental syncs.
+ * <p>
+ * Each backfill is recorded in the {@value #MARKER_COLLECTION} collection once it has completed, and is not run
+ * again, since the service writes every new book in the current shape and the version filter is not indexed.
+ * A failed backfill is logged and retried at the next start. Set books.backfill.enabled=false to skip them all.
+ */
+@Component
+@ConditionalOnProperty(name = "books.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class BookBackfill implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookBackfill.class);
+
+    /**
+     * Collection holding one document per completed backfill.
+     */
+    static final String MARKER_COLLECTION = "bookBackfills";
+
+    /**
+     * A backfill and the name it is recorded under.
+     *
+     * @param name     the marker ID, also used in log lines
+     * @param backfill the repository backfill, returning the number of books updated
+     */
+    record Backfill(String name, LongSupplier backfill) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final List<Backfill> backfills;
+
+    /**
+     * Constructs a new BookBackfill instance with the required dependencies.
+     *
+     * @param bookRepository the book repository interface
+     * @param mongoTemplate  the mongo template
+     */
+    public BookBackfill(BookRepositoryInterface bookRepository, MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.backfills = List.of(
+                new Backfill("searchKeys", bookRepository::backfillSearchKeys),
+                new Backfill("versions", bookRepository::backfillVersions),
+                new Backfill("timestamps", bookRepository::backfillTimestamps));
+    }
+
+    @Override
+    public void run(String... args) {
+        for (Backfill backfill : backfills) {
+            try {
+                if (markers().find(Filters.eq("_id", backfill.name())).first() != null) {
+                    continue;
+                }
+                long updated = backfill.backfill().getAsLong();
+                if (updated > 0) {
+                    logger.info("Backfilled {} of {} books", backfill.name(), updated);
+                }
+                markers().replaceOne(Filters.eq("_id", backfill.name()),
+                        new Document("_id", backfill.name())
+                                .append("updated", updated)
+                                .append("completedAt", new Date()),
+                        new ReplaceOptions().upsert(true));
+            } catch (Exception e) {
+                logger.error("Error backfilling {}", backfill.name(), e);
+            }
+        }
+    }
+
+    private MongoCollection<Document> markers() {
+        return mongoTemplate.getCollection(MARKER_COLLECTION);
+    }
+}
@@ -0,0 +1,130 @@
+package com.usmobile.demo.repository;
+
+import com.usmobile.demo.core.BookQuery;
+import com.usmobile.demo.util.BookHelper;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the filtered, sorted keyset page queries shared by the blocking and reactive repository fragments.
+ * Each filter and sort key is backed by one of the compound indexes declared on BookDAO.
+ */
+final class BookListQueries {
+
+    private BookListQueries() {
+    }
+
+    /**
+     * Builds the query of one page.
+     *
+     * @param request the page request
+     * @return the query, sorted by the requested key then by ID
+     */
+    static Query page(BookPageRequest request) {
+        List<Criteria> criteria = filters(request.filter());
+        if (request.afterId() != null) {
+            criteria.add(after(request));
+        }
+
+        Sort.Direction direction = request.descending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = request.sortField() == BookSortField.ID
+                ? Sort.by(direction, "_id")
+                : Sort.by(direction, request.sortField().field(), "_id");
+
+        Query query = criteria.isEmpty() ? new Query() : new Query(new Criteria().andOperator(criteria));
+        if (request.fields() != null) {
+            // the sort key is read as well, since the cursor of the next page is built from it
+            include(query, request.fields());
+            query.fields().include(request.sortField().field());
+        }
+        return query.with(sort).limit(request.limit());
+    }
+
+    /**
+     * Builds the query of one page of the books modified in a time window, in modification order, backed by
+     * the modified_id index.
+     *
+     * @param from    the earliest modification time, inclusive
+     * @param afterId the ID of the last book of the previous page, modified at {@code from}, or null for the first page
+     * @param until   the latest modification time, exclusive
+     * @param limit   the maximum number of books to return
+     * @return the query, sorted by modification time then by ID
+     */
+    static Query modified(Instant from, String afterId, Instant until, int limit) {
+        Criteria window = afterId == null
+                ? Criteria.where("lastModified").gte(from)
+                : new Criteria().orOperator(
+                        Criteria.where("lastModified").gt(from),
+                        Criteria.where("lastModified").is(from).and("_id").gt(afterId));
+        return new Query(new Criteria().andOperator(window, Criteria.where("lastModified").lt(until)))
+                .with(Sort.by(Sort.Direction.ASC, "lastModified", "_id"))
+                .limit(limit);
+    }
+
+    /**
+     * Builds the query reading the given properties of one book.
+     *
+     * @param id     the ID of the book
+     * @param fields the book properties to read
+     * @return the query
+     */
+    static Query byId(String id, Set<String> fields) {
+        Query query = new Query(Criteria.where("_id").is(id));
+        include(query, fields);
+        return query;
+    }
+
+    /**
+     * Restricts the query to the ID, the version and the stored fields of the given book properties.
+     */
+    private static void include(Query query, Set<String> fields) {
+        query.fields().include("_id", "version");
+        fields.stream()
+                .filter(field -> !field.equals("id"))
+                .forEach(field -> query.fields().include(field));
+    }
+
+    private static List<Criteria> filters(BookQuery filter) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter.getAuthor() != null && !filter.getAuthor().isBlank()) {
+            criteria.add(Criteria.where("authorKey").is(BookHelper.toSearchKey(filter.getAuthor())));
+        }
+        if (filter.getTitleContains() != null && !filter.getTitleContains().isBlank()) {
+            criteria.add(Criteria.where("titleKey")
+                    .regex(BookSearchQueries.escapeRegex(BookHelper.toSearchKey(filter.getTitleContains()))));
+        }
+        if (filter.getPublishedFrom() != null) {
+            criteria.add(Criteria.where("publishedDate").gte(filter.getPublishedFrom()));
+        }
+        if (filter.getPublishedTo() != null) {
+            criteria.add(Criteria.where("publishedDate").lte(filter.getPublishedTo()));
+        }
+        return criteria;
+    }
+
+    /**
+     * Matches the books after the last book of the previous page, in sort order.
+     */
+    private static Criteria after(BookPageRequest request) {
+        if (request.sortField() == BookSortField.ID) {
+            return request.descending()
+                    ? Criteria.where("_id").lt(request.afterId())
+                    : Criteria.where("_id").gt(request.afterId());
+        }
+        String field = request.sortField().field();
+        Object value = request.afterValue();
+        return request.descending()
+                ? new Criteria().orOperator(
+                        Criteria.where(field).lt(value),
+                        Criteria.where(field).is(value).and("_id").lt(request.afterId()))
+                : new Criteria().orOperator(
+                        Criteria.where(field).gt(value),
+                        Criteria.where(field).is(value).and("_id").gt(request.afterId()));
+    }
+}
@@ -0,0 +1,20 @@
+package com.usmobile.demo.repository;
+
+import com.usmobile.demo.core.BookQuery;
+
+import java.util.Set;
+
+/**
+ * A validated request for one keyset page of a filtered, sorted book listing.
+ *
+ * @param filter     the filters to apply
+ * @param sortField  the sort key
+ * @param descending whether the sort is descending
+ * @param afterValue the sort key value of the last book of the previous page, null for the first page or an ID sort
+ * @param afterId    the ID of the last book of the previous page, null for the first page
+ * @param limit      the maximum number of books to return
+ * @param fields     the book properties to read, or null for all of them
+ */
+public record BookPageRequest(BookQuery filter, BookSortField sortField, boolean descending,
+                              Object afterValue, String afterId, int limit, Set<String> fields) {
+}
@@ -0,0 +1,138 @@
+package com.usmobile.demo.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.usmobile.demo.entity.BookDAO;
+
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository operations that derived queries cannot express and that are implemented on top of MongoTemplate.
+ */
+public interface BookRepositoryCustom {
+
+    /**
+     * Inserts the given books with a single unordered bulk write.
+     * A failing book does not stop the remaining ones from being inserted.
+     *
+     * Books without a version are inserted at version 0, as {@code save} would.
+     *
+     * @param books the books to insert, with their IDs already assigned
+     * @return the write errors, indexed by position in the given list; empty if every book was inserted
+     */
+    List<BulkWriteError> insertUnordered(List<BookDAO> books);
+
+    /**
+     * Applies the given updates with a single unordered bulk write, each to the book with the paired ID,
+     * incrementing the version and setting the lastModified time of every updated book. Updates whose book does not exist are skipped silently.
+     *
+     * @param updates the ID of each book to update and its update, at most one per book
+     * @return the write errors, indexed by position in the given list; empty if no update failed
+     */
+    List<BulkWriteError> updateUnordered(List<Pair<String, Update>> updates);
+
+    /**
+     * Applies the given update to a book, increments its version and sets its lastModified time, returning the
+     * updated document, in a single findAndModify command.
+     *
+     * @param id              the ID of the book to update
+     * @param expectedVersion the version the book must still have to be updated, or null to update any version
+     * @param update          the update to apply
+     * @return the book as it is after the update, or empty if no book has this ID and expected version
+     */
+    Optional<BookDAO> updateFields(String id, Long expectedVersion, Update update);
+
+    /**
+     * Retrieves one keyset page of a filtered, sorted book listing with a single indexed query.
+     *
+     * @param request the filters, sort and position of the page
+     * @return the books of the page, in sort order
+     */
+    List<BookDAO> findPage(BookPageRequest request);
+
+    /**
+     * Retrieves one page of the books modified in a time window, oldest modification first, with a single
+     * indexed query. Pages are resumed from the modification time and ID of the last book returned.
+     *
+     * @param from    the earliest modification time, inclusive
+     * @param afterId the ID of the last book of the previous page, modified at {@code from}, or null for the first page
+     * @param until   the latest modification time, exclusive
+     * @param limit   the maximum number of books to return
+     * @return the books of the page, ordered by modification time then by ID
+     */
+    List<BookDAO> findModified(Instant from, String afterId, Instant until, int limit);
+
+    /**
+     * Deletes every book whose ID is in the given collection with a single $in delete command.
+     *
+     * @param ids the IDs of the books to delete
+     * @return the number of deleted books
+     */
+    long removeByIds(Collection<String> ids);
+
+    /**
+     * Records a tombstone for each of the given book IDs with a single unordered bulk upsert,
+     * so incremental syncs report them as deleted.
+     *
+     * @param ids the IDs of the deleted books
+     */
+    void recordDeletions(Collection<String> ids);
+
+    /**
+     * Retrieves the IDs of the books deleted in a time window, from their tombstones.
+     *
+     * @param from  the earliest deletion time, inclusive
+     * @param until the latest deletion time, exclusive
+     * @return the IDs of the deleted books
+     */
+    List<String> findDeletedIds(Instant from, Instant until);
+
+    /**
+     * Searches the text index over title and author, most relevant books first.
+     *
+     * @param text  the words or phrases to search for
+     * @param skip  the number of matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the matching books
+     */
+    List<BookDAO> searchText(String text, long skip, int limit);
+
+    /**
+     * Finds books whose title or author starts with the given prefix, ignoring case, ordered by title.
+     *
+     * @param prefix the prefix
+     * @param skip   the number of matches to skip
+     * @param limit  the maximum number of matches to return
+     * @return the matching books
+     */
+    List<BookDAO> searchPrefix(String prefix, long skip, int limit);
+
+    /**
+     * Sets the search keys of every book whose keys are missing or differ from {@code BookHelper.toSearchKey}
+     * of its title and author. Books are read through a cursor and updated with one bulk write per batch.
+     *
+     * @return the number of books updated
+     */
+    long backfillSearchKeys();
+
+    /**
+     * Sets version 0 on books written before documents were versioned, with a single update command.
+     * The version is not indexed, so this scans the collection; it is meant to run once.
+     *
+     * @return the number of books updated
+     */
+    long backfillVersions();
+
+    /**
+     * Sets createdAt and lastModified to now on books written before they were timestamped,
+     * with a single update command served by the lastModified index.
+     *
+     * @return the number of books updated
+     */
+    long backfillTimestamps();
+}
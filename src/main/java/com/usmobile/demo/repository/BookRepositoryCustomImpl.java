@@ -0,0 +1,194 @@
+package com.usmobile.demo.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.usmobile.demo.entity.BookDAO;
+import com.usmobile.demo.entity.BookTombstoneDAO;
+import com.usmobile.demo.util.BookHelper;
+import org.bson.Document;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * MongoTemplate based implementation of {@link BookRepositoryCustom}.
+ * Picked up by Spring Data as a fragment of {@link BookRepositoryInterface}.
+ */
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    /**
+     * Number of books read per cursor batch and updated per bulk write by {@link #backfillSearchKeys()}.
+     */
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructs a new BookRepositoryCustomImpl instance with the required dependencies.
+     *
+     * @param mongoTemplate the mongo template
+     */
+    public BookRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<BulkWriteError> insertUnordered(List<BookDAO> books) {
+        // bulk inserts bypass the version initialisation done by save
+        books.stream()
+                .filter(book -> book.getVersion() == null)
+                .forEach(book -> book.setVersion(0L));
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookDAO.class)
+                    .insert(books)
+                    .execute();
+            return List.of();
+        } catch (BulkOperationException e) {
+            return e.getErrors();
+        }
+    }
+
+    @Override
+    public List<BulkWriteError> updateUnordered(List<Pair<String, Update>> updates) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookDAO.class);
+        Instant now = BookHelper.now();
+        for (Pair<String, Update> update : updates) {
+            operations.updateOne(query(where("id").is(update.getFirst())),
+                    update.getSecond().inc("version", 1).set("lastModified", now));
+        }
+        try {
+            operations.execute();
+            return List.of();
+        } catch (BulkOperationException e) {
+            return e.getErrors();
+        }
+    }
+
+    @Override
+    public Optional<BookDAO> updateFields(String id, Long expectedVersion, Update update) {
+        Criteria criteria = where("id").is(id);
+        if (expectedVersion != null) {
+            criteria.and("version").is(expectedVersion);
+        }
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query(criteria),
+                update.inc("version", 1).set("lastModified", BookHelper.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                BookDAO.class));
+    }
+
+    @Override
+    public List<BookDAO> findPage(BookPageRequest request) {
+        return mongoTemplate.find(BookListQueries.page(request), BookDAO.class);
+    }
+
+    @Override
+    public List<BookDAO> findModified(Instant from, String afterId, Instant until, int limit) {
+        return mongoTemplate.find(BookListQueries.modified(from, afterId, until, limit), BookDAO.class);
+    }
+
+    @Override
+    public long removeByIds(Collection<String> ids) {
+        return mongoTemplate.remove(query(where("id").in(ids)), BookDAO.class).getDeletedCount();
+    }
+
+    @Override
+    public void recordDeletions(Collection<String> ids) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookTombstoneDAO.class);
+        Instant now = BookHelper.now();
+        // upserts, since deleting a book twice or deleting IDs that never existed must not fail
+        for (String id : ids) {
+            operations.upsert(query(where("id").is(id)), new Update().set("deletedAt", now));
+        }
+        operations.execute();
+    }
+
+    @Override
+    public List<String> findDeletedIds(Instant from, Instant until) {
+        Query query = query(where("deletedAt").gte(from).lt(until));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, BookTombstoneDAO.class).stream()
+                .map(BookTombstoneDAO::getId)
+                .toList();
+    }
+
+    @Override
+    public List<BookDAO> searchText(String text, long skip, int limit) {
+        return mongoTemplate.find(BookSearchQueries.text(text, skip, limit), BookDAO.class);
+    }
+
+    @Override
+    public List<BookDAO> searchPrefix(String prefix, long skip, int limit) {
+        return mongoTemplate.find(BookSearchQueries.prefix(prefix, skip, limit), BookDAO.class);
+    }
+
+    @Override
+    public long backfillSearchKeys() {
+        // keys are computed by BookHelper rather than with $toLower, which neither trims nor folds non-ASCII
+        // letters, so backfilled books get exactly the keys the service writes; wrong keys are corrected as well
+        Query query = new Query().cursorBatchSize(BACKFILL_BATCH_SIZE);
+        query.fields().include("title", "author", "titleKey", "authorKey");
+        String collection = mongoTemplate.getCollectionName(BookDAO.class);
+        long updated = 0;
+        List<Pair<Object, Update>> batch = new ArrayList<>(BACKFILL_BATCH_SIZE);
+        try (Stream<Document> books = mongoTemplate.stream(query, Document.class, collection)) {
+            for (Document book : (Iterable<Document>) books::iterator) {
+                String titleKey = BookHelper.toSearchKey(book.getString("title"));
+                String authorKey = BookHelper.toSearchKey(book.getString("author"));
+                if (Objects.equals(titleKey, book.getString("titleKey"))
+                        && Objects.equals(authorKey, book.getString("authorKey"))) {
+                    continue;
+                }
+                batch.add(Pair.of(book.get("_id"), new Update().set("titleKey", titleKey).set("authorKey", authorKey)));
+                if (batch.size() == BACKFILL_BATCH_SIZE) {
+                    updated += writeSearchKeys(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            updated += writeSearchKeys(batch);
+        }
+        return updated;
+    }
+
+    private long writeSearchKeys(List<Pair<Object, Update>> keys) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookDAO.class);
+        for (Pair<Object, Update> key : keys) {
+            operations.updateOne(query(where("_id").is(key.getFirst())), key.getSecond());
+        }
+        return operations.execute().getModifiedCount();
+    }
+
+    @Override
+    public long backfillVersions() {
+        return mongoTemplate.updateMulti(
+                query(where("version").exists(false)),
+                new Update().set("version", 0L),
+                BookDAO.class).getModifiedCount();
+    }
+
+    @Override
+    public long backfillTimestamps() {
+        Instant now = BookHelper.now();
+        return mongoTemplate.updateMulti(
+                query(where("lastModified").exists(false)),
+                new Update().set("createdAt", now).set("lastModified", now),
+                BookDAO.class).getModifiedCount();
+    }
+}
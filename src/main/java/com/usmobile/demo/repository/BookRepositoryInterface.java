@@ -2,7 +2,45 @@ package com.usmobile.demo.repository;
 
 
 import com.usmobile.demo.entity.BookDAO;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface BookRepositoryInterface extends MongoRepository<BookDAO, String> {
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface BookRepositoryInterface extends MongoRepository<BookDAO, String>, BookRepositoryCustom {
+
+    /**
+     * Retrieves a book by its ISBN through the unique ISBN index.
+     *
+     * @param isbn the ISBN of the book
+     * @return the book, or empty if no book has this ISBN
+     */
+    Optional<BookDAO> findByIsbn(String isbn);
+
+    /**
+     * Deletes a book by its ID with a single delete command.
+     *
+     * @param id the ID of the book to delete
+     * @return the number of deleted books, 0 if no book has this ID
+     */
+    long removeById(String id);
+
+    /**
+     * Deletes a book by its ID with a single delete command, provided it still has the given version.
+     *
+     * @param id      the ID of the book to delete
+     * @param version the version the book must have
+     * @return the number of deleted books, 0 if no book has this ID and version
+     */
+    long removeByIdAndVersion(String id, Long version);
+
+    /**
+     * Streams every book through a server-side cursor, fetching documents in batches.
+     * The returned stream holds an open cursor and must be closed by the caller.
+     *
+     * @return a stream over all books
+     */
+    @Meta(cursorBatchSize = 500)
+    Stream<BookDAO> streamAllBy();
 }
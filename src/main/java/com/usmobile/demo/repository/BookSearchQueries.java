@@ -0,0 +1,66 @@
+package com.usmobile.demo.repository;
+
+import com.usmobile.demo.util.BookHelper;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import java.util.regex.Pattern;
+
+/**
+ * Builds the search queries shared by the blocking and reactive repository fragments.
+ */
+final class BookSearchQueries {
+
+    private static final Pattern REGEX_METACHARACTERS = Pattern.compile("[\\\\^$.|?*+()\\[\\]{}]");
+
+    private BookSearchQueries() {
+    }
+
+    /**
+     * Builds a text index query ordered by relevance, most relevant first.
+     *
+     * @param text  the words or phrases to search for
+     * @param skip  the number of matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the query
+     */
+    static Query text(String text, long skip, int limit) {
+        return TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .sortByScore()
+                .skip(skip)
+                .limit(limit);
+    }
+
+    /**
+     * Builds a query matching books whose title or author starts with the given prefix, ignoring case.
+     * The prefix is matched as an escaped, anchored regex on the lower-cased keys, which MongoDB turns into
+     * an index range scan.
+     *
+     * @param prefix the prefix
+     * @param skip   the number of matches to skip
+     * @param limit  the maximum number of matches to return
+     * @return the query
+     */
+    static Query prefix(String prefix, long skip, int limit) {
+        String regex = "^" + escapeRegex(BookHelper.toSearchKey(prefix));
+        return new Query(new Criteria().orOperator(
+                Criteria.where("titleKey").regex(regex),
+                Criteria.where("authorKey").regex(regex)))
+                .with(Sort.by("titleKey", "id"))
+                .skip(skip)
+                .limit(limit);
+    }
+
+    /**
+     * Escapes the regex metacharacters of the given text so that it is matched literally.
+     *
+     * @param text the text
+     * @return the escaped text
+     */
+    static String escapeRegex(String text) {
+        return REGEX_METACHARACTERS.matcher(text).replaceAll("\\\\$0");
+    }
+}
@@ -0,0 +1,64 @@
+package com.usmobile.demo.repository;
+
+import com.usmobile.demo.entity.BookDAO;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * The keys a book listing can be sorted by, with the stored field backing each one.
+ * Every sort is completed by the ID so that keyset pagination has a unique position to resume from.
+ */
+public enum BookSortField {
+    ID("id", "_id", BookDAO::getId),
+    TITLE("title", "titleKey", BookDAO::getTitleKey),
+    AUTHOR("author", "authorKey", BookDAO::getAuthorKey),
+    PUBLISHED_DATE("publishedDate", "publishedDate", BookDAO::getPublishedDate);
+
+    private final String param;
+    private final String field;
+    private final Function<BookDAO, Object> accessor;
+
+    BookSortField(String param, String field, Function<BookDAO, Object> accessor) {
+        this.param = param;
+        this.field = field;
+        this.accessor = accessor;
+    }
+
+    /**
+     * @return the name clients use for this key
+     */
+    public String param() {
+        return param;
+    }
+
+    /**
+     * @return the name of the stored field
+     */
+    public String field() {
+        return field;
+    }
+
+    /**
+     * Reads this key from a book.
+     *
+     * @param book the book
+     * @return the value the book is sorted by
+     */
+    public Object valueOf(BookDAO book) {
+        return accessor.apply(book);
+    }
+
+    /**
+     * Finds the sort key with the given client name.
+     *
+     * @param param the client name, without direction prefix
+     * @return the sort key, or null if there is none with this name
+     */
+    public static BookSortField fromParam(String param) {
+        return Arrays.stream(values())
+                .filter(sortField -> sortField.param.equals(param))
+                .findFirst()
+                .orElse(null);
+    }
+}
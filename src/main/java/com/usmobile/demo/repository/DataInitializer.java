@@ -7,6 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -17,8 +18,10 @@ import java.util.List;
 /**
  * Initializes the database with sample data when the application starts.
  * Deletes all existing data and inserts new sample books.
+ * Only runs when books.sample-data.enabled is set, since it wipes the collection.
  */
 @Component
+@ConditionalOnProperty(name = "books.sample-data.enabled", havingValue = "true")
 public class DataInitializer implements CommandLineRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
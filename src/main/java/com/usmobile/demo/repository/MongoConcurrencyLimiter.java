@@ -0,0 +1,79 @@
+package com.usmobile.demo.repository;
+
+import com.usmobile.demo.exception.ErrorMessageEnum;
+import com.usmobile.demo.exception.ServiceUnavailableException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Bounds the number of repository calls running at the same time, so a burst of requests waits for a permit
+ * instead of exhausting the Mongo connection pool. Waiting is cheap when requests run on virtual threads.
+ * A returned {@link Stream} keeps its permit, like it keeps its cursor, until it is closed.
+ */
+public class MongoConcurrencyLimiter implements MethodInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoConcurrencyLimiter.class);
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+
+    /**
+     * Constructs a new MongoConcurrencyLimiter.
+     *
+     * @param maxConcurrent        the maximum number of repository calls running at the same time
+     * @param acquireTimeoutMillis how long a call waits for a permit before it is rejected
+     */
+    public MongoConcurrencyLimiter(int maxConcurrent, long acquireTimeoutMillis) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+
+        acquire(invocation);
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable t) {
+            permits.release();
+            throw t;
+        }
+
+        if (result instanceof Stream<?> stream) {
+            return stream.onClose(permits::release);
+        }
+        permits.release();
+        return result;
+    }
+
+    /**
+     * Returns the number of permits currently available.
+     *
+     * @return the available permits
+     */
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire(MethodInvocation invocation) {
+        try {
+            if (permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.warn("No database permit available within {} ms for {}", acquireTimeoutMillis, invocation.getMethod().getName());
+        throw new ServiceUnavailableException(ErrorMessageEnum.DATABASE_BUSY.getMessage());
+    }
+}
@@ -0,0 +1,79 @@
+package com.usmobile.demo.repository;
+
+import com.usmobile.demo.entity.BookDAO;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Non-blocking counterpart of {@link BookRepositoryCustom}, implemented on top of ReactiveMongoTemplate.
+ */
+public interface ReactiveBookRepositoryCustom {
+
+    /**
+     * Applies the given update to a book, increments its version and sets its lastModified time, returning the
+     * updated document, in a single findAndModify command.
+     *
+     * @param id     the ID of the book to update
+     * @param update the update to apply
+     * @return the book as it is after the update, or empty if no book has this ID
+     */
+    Mono<BookDAO> updateFields(String id, Update update);
+
+    /**
+     * Deletes every book whose ID is in the given collection with a single $in delete command.
+     *
+     * @param ids the IDs of the books to delete
+     * @return the number of deleted books
+     */
+    Mono<Long> removeByIds(Collection<String> ids);
+
+    /**
+     * Records a tombstone for each of the given book IDs with a single unordered bulk upsert,
+     * so incremental syncs report them as deleted.
+     *
+     * @param ids the IDs of the deleted books
+     * @return completes once the tombstones are written
+     */
+    Mono<Void> recordDeletions(Collection<String> ids);
+
+    /**
+     * Reads only the given properties of a book, projecting them in the query.
+     *
+     * @param id     the ID of the book
+     * @param fields the book properties to read
+     * @return the partially populated book, or empty if no book has this ID
+     */
+    Mono<BookDAO> findProjectedById(String id, Set<String> fields);
+
+    /**
+     * Retrieves one keyset page of a filtered, sorted book listing with a single indexed query.
+     *
+     * @param request the filters, sort and position of the page
+     * @return the books of the page, in sort order
+     */
+    Flux<BookDAO> findPage(BookPageRequest request);
+
+    /**
+     * Searches the text index over title and author, most relevant books first.
+     *
+     * @param text  the words or phrases to search for
+     * @param skip  the number of matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the matching books
+     */
+    Flux<BookDAO> searchText(String text, long skip, int limit);
+
+    /**
+     * Finds books whose title or author starts with the given prefix, ignoring case, ordered by title.
+     *
+     * @param prefix the prefix
+     * @param skip   the number of matches to skip
+     * @param limit  the maximum number of matches to return
+     * @return the matching books
+     */
+    Flux<BookDAO> searchPrefix(String prefix, long skip, int limit);
+}
@@ -0,0 +1,82 @@
+package com.usmobile.demo.repository;
+
+import com.mongodb.client.result.DeleteResult;
+import com.usmobile.demo.entity.BookDAO;
+import com.usmobile.demo.entity.BookTombstoneDAO;
+import com.usmobile.demo.util.BookHelper;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * ReactiveMongoTemplate based implementation of {@link ReactiveBookRepositoryCustom}.
+ * Picked up by Spring Data as a fragment of {@link ReactiveBookRepositoryInterface}.
+ */
+public class ReactiveBookRepositoryCustomImpl implements ReactiveBookRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    /**
+     * Constructs a new ReactiveBookRepositoryCustomImpl instance with the required dependencies.
+     *
+     * @param reactiveMongoTemplate the reactive mongo template
+     */
+    public ReactiveBookRepositoryCustomImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Mono<BookDAO> updateFields(String id, Update update) {
+        return reactiveMongoTemplate.findAndModify(
+                query(where("id").is(id)),
+                update.inc("version", 1).set("lastModified", BookHelper.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                BookDAO.class);
+    }
+
+    @Override
+    public Mono<Long> removeByIds(Collection<String> ids) {
+        return reactiveMongoTemplate.remove(query(where("id").in(ids)), BookDAO.class).map(DeleteResult::getDeletedCount);
+    }
+
+    @Override
+    public Mono<Void> recordDeletions(Collection<String> ids) {
+        ReactiveBulkOperations operations = reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookTombstoneDAO.class);
+        Instant now = BookHelper.now();
+        for (String id : ids) {
+            operations.upsert(query(where("id").is(id)), new Update().set("deletedAt", now));
+        }
+        return operations.execute().then();
+    }
+
+    @Override
+    public Mono<BookDAO> findProjectedById(String id, Set<String> fields) {
+        return reactiveMongoTemplate.findOne(BookListQueries.byId(id, fields), BookDAO.class);
+    }
+
+    @Override
+    public Flux<BookDAO> findPage(BookPageRequest request) {
+        return reactiveMongoTemplate.find(BookListQueries.page(request), BookDAO.class);
+    }
+
+    @Override
+    public Flux<BookDAO> searchText(String text, long skip, int limit) {
+        return reactiveMongoTemplate.find(BookSearchQueries.text(text, skip, limit), BookDAO.class);
+    }
+
+    @Override
+    public Flux<BookDAO> searchPrefix(String prefix, long skip, int limit) {
+        return reactiveMongoTemplate.find(BookSearchQueries.prefix(prefix, skip, limit), BookDAO.class);
+    }
+}
@@ -0,0 +1,39 @@
+package com.usmobile.demo.repository;
+
+
+import com.usmobile.demo.entity.BookDAO;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Non-blocking counterpart of {@link BookRepositoryInterface}, used by the reactive execution mode.
+ */
+public interface ReactiveBookRepositoryInterface extends ReactiveMongoRepository<BookDAO, String>, ReactiveBookRepositoryCustom {
+
+    /**
+     * Retrieves a book by its ISBN through the unique ISBN index.
+     *
+     * @param isbn the ISBN of the book
+     * @return the book, or empty if no book has this ISBN
+     */
+    Mono<BookDAO> findByIsbn(String isbn);
+
+    /**
+     * Deletes a book by its ID with a single delete command.
+     *
+     * @param id the ID of the book to delete
+     * @return the number of deleted books, 0 if no book has this ID
+     */
+    Mono<Long> removeById(String id);
+
+    /**
+     * Streams every book through a server-side cursor, fetching documents in batches as they are requested.
+     *
+     * @return all books
+     */
+    @Meta(cursorBatchSize = 500)
+    Flux<BookDAO> streamAllBy();
+}
@@ -0,0 +1,58 @@
+package com.usmobile.demo.service;
+
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.mapper.BookMapper;
+import com.usmobile.demo.repository.BookRepositoryInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * Loads the whole catalog into the autocomplete index once the application is ready, after the startup
+ * runners (sample data, backfills) have completed. Books are streamed through a cursor, so the
+ * load never holds more than one cursor batch of documents besides the index itself.
+ */
+@Component
+public class AutocompleteWarmupLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteWarmupLoader.class);
+
+    private final BookRepositoryInterface bookRepository;
+    private final BookMapper bookMapper;
+    private final BookAutocompleteIndex autocompleteIndex;
+
+    /**
+     * Constructs a new AutocompleteWarmupLoader instance with the required dependencies.
+     *
+     * @param bookRepository    the book repository interface
+     * @param bookMapper        the book mapper instance
+     * @param autocompleteIndex the index to load
+     */
+    public AutocompleteWarmupLoader(BookRepositoryInterface bookRepository, BookMapper bookMapper,
+                                    BookAutocompleteIndex autocompleteIndex) {
+        this.bookRepository = bookRepository;
+        this.bookMapper = bookMapper;
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    /**
+     * Loads the autocomplete index from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        try (Stream<BookDTO> books = bookRepository.streamAllBy().map(bookMapper::toCore)) {
+            autocompleteIndex.load(books);
+            BookAutocompleteIndex.Stats stats = autocompleteIndex.stats();
+            logger.info("Autocomplete index loaded with {} books and {} completions (~{} KB) in {} ms",
+                    stats.books(), stats.completions(), stats.estimatedBytes() / 1024,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            logger.error("Error loading autocomplete index", e);
+        }
+    }
+}
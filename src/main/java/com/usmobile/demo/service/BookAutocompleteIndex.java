@@ -0,0 +1,248 @@
+package com.usmobile.demo.service;
+
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.util.BookHelper;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of book titles and authors serving typeahead completions without a database round trip.
+ * Completions are kept in a sorted map keyed by the lower-cased search key, so the completions of a prefix are
+ * the contiguous range of keys starting with it. Each key is stored once however many books share it, with the
+ * number of those books, and the top completions of a prefix are the ones shared by the most books.
+ * <p>
+ * The same completions are also kept in a set ordered by that rank. A lookup walks the alphabetical range of the
+ * prefix and the ranked set side by side and stops as soon as either walk has the answer: the range once it is
+ * exhausted, the ranked set once it has found {@code limit} completions with the prefix. A selective prefix
+ * is thus answered from its short range and a broad one from the first few ranked completions, instead of
+ * scanning every completion that starts with it.
+ * <p>
+ * Reads are lock-free; writes are serialized, as they only follow book writes.
+ */
+@Component
+public class BookAutocompleteIndex {
+
+    /**
+     * Upper bound for the number of completions a client may request.
+     */
+    public static final int MAX_LIMIT = 50;
+
+    // Rough per-object sizes on a 64-bit JVM with compressed oops, used for the footprint estimate
+    private static final int STRING_OVERHEAD = 40;
+    private static final int SKIP_LIST_ENTRY_OVERHEAD = 56;
+    private static final int HASH_MAP_ENTRY_OVERHEAD = 48;
+    private static final int RECORD_OVERHEAD = 24;
+
+    /**
+     * A completion and the number of books it was taken from, ranked by most books first, then by search key.
+     */
+    private record Completion(String key, String text, int books) implements Comparable<Completion> {
+
+        @Override
+        public int compareTo(Completion other) {
+            int byBooks = Integer.compare(other.books, books);
+            return byBooks != 0 ? byBooks : key.compareTo(other.key);
+        }
+    }
+
+    /**
+     * The keys under which a book is indexed, to unindex it on update or delete.
+     */
+    private record IndexedBook(String titleKey, String authorKey) {
+    }
+
+    /**
+     * Size and state of the index, as reported by the autocomplete actuator endpoint.
+     *
+     * @param loaded         whether the startup load has completed
+     * @param books          the number of indexed books
+     * @param completions    the number of distinct completions
+     * @param estimatedBytes an estimate of the heap retained by the index
+     */
+    public record Stats(boolean loaded, int books, int completions, long estimatedBytes) {
+    }
+
+    private final ConcurrentSkipListMap<String, Completion> completions = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListSet<Completion> ranking = new ConcurrentSkipListSet<>();
+    private final Map<String, IndexedBook> books = new ConcurrentHashMap<>();
+    private final Set<String> removedWhileLoading = new HashSet<>();
+    private boolean loading;
+    private volatile boolean loaded;
+
+    /**
+     * Returns the top completions starting with the given prefix, ignoring case: those shared by the most books
+     * first, ties in alphabetical order.
+     *
+     * @param prefix the text typed so far
+     * @param limit  the maximum number of completions to return
+     * @return the completions, empty if the prefix is blank
+     */
+    public List<String> complete(String prefix, int limit) {
+        String key = BookHelper.toSearchKey(prefix);
+        if (key == null || key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Iterator<Completion> range = completions.subMap(key, true, key + Character.MAX_VALUE, true).values().iterator();
+        Iterator<Completion> ranked = ranking.iterator();
+        // the head of the heap is the worst completion of the range kept so far
+        PriorityQueue<Completion> rangeTop = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+        List<String> rankedTop = new ArrayList<>(limit);
+        while (true) {
+            if (!range.hasNext()) {
+                return rangeTop.stream().sorted().map(Completion::text).toList();
+            }
+            rangeTop.offer(range.next());
+            if (rangeTop.size() > limit) {
+                rangeTop.poll();
+            }
+
+            if (!ranked.hasNext()) {
+                return rankedTop;
+            }
+            Completion next = ranked.next();
+            if (next.key().startsWith(key)) {
+                rankedTop.add(next.text());
+                if (rankedTop.size() == limit) {
+                    return rankedTop;
+                }
+            }
+        }
+    }
+
+    /**
+     * Indexes the given books, typically the whole catalog at startup. Books indexed or removed through
+     * change events while the load runs are not overwritten with the possibly older loaded state.
+     *
+     * @param source the books to index
+     */
+    public void load(Stream<BookDTO> source) {
+        synchronized (this) {
+            loading = true;
+        }
+        try {
+            source.forEach(book -> {
+                synchronized (this) {
+                    if (!books.containsKey(book.getId()) && !removedWhileLoading.contains(book.getId())) {
+                        index(book);
+                    }
+                }
+            });
+        } finally {
+            synchronized (this) {
+                loading = false;
+                removedWhileLoading.clear();
+            }
+        }
+        loaded = true;
+    }
+
+    /**
+     * Keeps the index in sync with book writes.
+     *
+     * @param event the change that happened
+     */
+    @EventListener
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        unindex(event.id());
+        if (event.type() == BookChangedEvent.Type.DELETED) {
+            if (loading) {
+                removedWhileLoading.add(event.id());
+            }
+        } else {
+            index(event.book());
+        }
+    }
+
+    /**
+     * Reports the size of the index and an estimate of the memory it retains.
+     *
+     * @return the index statistics
+     */
+    public Stats stats() {
+        long bytes = 0;
+        for (Map.Entry<String, Completion> entry : completions.entrySet()) {
+            // one entry in the alphabetical map and one in the ranked set, sharing the completion
+            bytes += 2 * SKIP_LIST_ENTRY_OVERHEAD + RECORD_OVERHEAD + stringBytes(entry.getKey());
+            if (!entry.getValue().text().equals(entry.getKey())) {
+                bytes += stringBytes(entry.getValue().text());
+            }
+        }
+        for (String id : books.keySet()) {
+            bytes += HASH_MAP_ENTRY_OVERHEAD + RECORD_OVERHEAD + stringBytes(id);
+        }
+        return new Stats(loaded, books.size(), completions.size(), bytes);
+    }
+
+    private void index(BookDTO book) {
+        String titleKey = addCompletion(book.getTitle());
+        String authorKey = addCompletion(book.getAuthor());
+        books.put(book.getId(), new IndexedBook(titleKey, authorKey));
+    }
+
+    private void unindex(String id) {
+        IndexedBook indexed = books.remove(id);
+        if (indexed != null) {
+            removeCompletion(indexed.titleKey());
+            removeCompletion(indexed.authorKey());
+        }
+    }
+
+    /**
+     * Adds a reference to the completion of the given text, returning the map's own key instance so that
+     * the per-book entries share it instead of holding a copy.
+     */
+    private String addCompletion(String text) {
+        String key = BookHelper.toSearchKey(text);
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+        Completion current = completions.get(key);
+        Completion updated = current == null
+                ? new Completion(key, text.trim(), 1)
+                : new Completion(current.key(), current.text(), current.books() + 1);
+        rerank(current, updated);
+        return updated.key();
+    }
+
+    private void removeCompletion(String key) {
+        Completion current = key == null ? null : completions.get(key);
+        if (current != null) {
+            rerank(current, current.books() > 1
+                    ? new Completion(current.key(), current.text(), current.books() - 1)
+                    : null);
+        }
+    }
+
+    /**
+     * Replaces a completion in both the alphabetical map and the ranked set. The old rank is removed before
+     * the new one is added, so a concurrent lookup may miss the completion but never sees it twice.
+     */
+    private void rerank(Completion current, Completion updated) {
+        if (current != null) {
+            ranking.remove(current);
+        }
+        if (updated == null) {
+            completions.remove(current.key());
+        } else {
+            completions.put(updated.key(), updated);
+            ranking.add(updated);
+        }
+    }
+
+    private static long stringBytes(String value) {
+        return STRING_OVERHEAD + value.length();
+    }
+}
@@ -0,0 +1,239 @@
+package com.usmobile.demo.service;
+
+import com.usmobile.demo.core.BookChangeDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-Sent Events feed of book changes, so clients can follow the catalog instead of polling GET /books.
+ * Every {@link BookChangedEvent} gets a sequence number and is kept in a ring buffer of the latest
+ * {@code bufferSize} changes, from which a reconnecting client is replayed everything after its Last-Event-ID.
+ * <p>
+ * Event IDs are {@code <epoch>-<sequence>}, the epoch identifying this process. A client whose Last-Event-ID
+ * belongs to another process or has already left the buffer gets a single {@code reset} event and should reload
+ * the catalog. All sends happen on one sender thread, so a slow client never delays a book write, and a
+ * subscriber added after its replay cannot miss or reorder a change.
+ * <p>
+ * With the change stream enabled the feed follows the stream only, which carries the writes of every instance,
+ * so each write is sent once rather than a second time from the local event of the instance that made it.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BookChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookChangeFeed.class);
+
+    static final String RESET_EVENT = "reset";
+
+    /**
+     * A change and its position in the feed.
+     *
+     * @param sequence the sequence number
+     * @param change   the change as sent to clients
+     */
+    record Entry(long sequence, BookChangeDTO change) {
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Entry[] ring;
+    private long nextSequence = 1;
+    // the latest change sent to every subscriber, only touched on the sender thread
+    private long lastBroadcast;
+
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService sender;
+    private final long timeoutMillis;
+    private final BookChangedEvent.Origin followedOrigin;
+    private final Counter published;
+
+    /**
+     * Constructs a new BookChangeFeed instance with the required dependencies.
+     *
+     * @param meterRegistry       the registry of the subscriber gauge and the published changes counter
+     * @param bufferSize          the number of latest changes kept for replay
+     * @param timeout             how long a subscription stays open before the client has to reconnect
+     * @param heartbeat           the interval of the comments sent to keep idle connections open
+     * @param changeStreamEnabled whether changes are followed through the change stream instead of local events
+     */
+    public BookChangeFeed(MeterRegistry meterRegistry,
+                          @Value("${books.changes.buffer-size:1024}") int bufferSize,
+                          @Value("${books.changes.timeout:30m}") Duration timeout,
+                          @Value("${books.changes.heartbeat:15s}") Duration heartbeat,
+                          @Value("${books.change-stream.enabled:false}") boolean changeStreamEnabled) {
+        this(meterRegistry, bufferSize, timeout, heartbeat, changeStreamEnabled, Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("book-change-feed").daemon().factory()));
+    }
+
+    BookChangeFeed(MeterRegistry meterRegistry, int bufferSize, Duration timeout, Duration heartbeat,
+                   boolean changeStreamEnabled, ScheduledExecutorService sender) {
+        this.sender = sender;
+        this.ring = new Entry[bufferSize];
+        this.timeoutMillis = timeout.toMillis();
+        this.followedOrigin = changeStreamEnabled ? BookChangedEvent.Origin.CHANGE_STREAM : BookChangedEvent.Origin.LOCAL;
+        sender.scheduleAtFixedRate(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        Gauge.builder("books.changes.subscribers", subscribers, List::size)
+                .description("Open GET /books/changes streams")
+                .register(meterRegistry);
+        this.published = Counter.builder("books.changes.published")
+                .description("Changes appended to GET /books/changes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a subscription. Changes after the given event ID are replayed first; without one, only changes
+     * made from now on are sent.
+     *
+     * @param lastEventId the Last-Event-ID sent by a reconnecting client, or null
+     * @return the emitter streaming the changes
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+        sender.execute(() -> {
+            if (replay(emitter, lastEventId)) {
+                subscribers.add(emitter);
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * Appends a change to the feed and sends it to every subscriber, unless it comes from the origin not followed.
+     *
+     * @param event the change
+     */
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.origin() != followedOrigin) {
+            return;
+        }
+        published.increment();
+        BookChangeDTO change = new BookChangeDTO(event.type().name(), event.id(), event.book());
+        // queued under the lock, so the sender thread broadcasts the changes in sequence order
+        synchronized (this) {
+            Entry entry = new Entry(nextSequence++, change);
+            ring[(int) (entry.sequence() % ring.length)] = entry;
+            sender.execute(() -> {
+                lastBroadcast = entry.sequence();
+                subscribers.forEach(emitter -> send(emitter, entry));
+            });
+        }
+    }
+
+    /**
+     * Completes every subscription and stops the sender thread.
+     */
+    @PreDestroy
+    public void close() {
+        sender.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    /**
+     * Sends a new subscriber the changes it missed. Changes whose broadcast is still queued are left to it,
+     * since it runs once the subscriber has been added.
+     *
+     * @return false if the emitter failed and must not be subscribed
+     */
+    private boolean replay(SseEmitter emitter, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return true;
+        }
+        List<Entry> missed = since(lastEventId);
+        if (missed == null) {
+            try {
+                emitter.send(SseEmitter.event().name(RESET_EVENT).data("reload", MediaType.TEXT_PLAIN));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                return false;
+            }
+        }
+        for (Entry entry : missed) {
+            if (entry.sequence() > lastBroadcast) {
+                break;
+            }
+            if (!send(emitter, entry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the changes after an event ID.
+     *
+     * @param lastEventId the event ID
+     * @return the changes in order, or null if they can no longer be replayed
+     */
+    synchronized List<Entry> since(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return null;
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long oldest = Math.max(1, nextSequence - ring.length);
+        if (last < oldest - 1 || last >= nextSequence) {
+            return null;
+        }
+        List<Entry> missed = new ArrayList<>((int) (nextSequence - last - 1));
+        for (long sequence = last + 1; sequence < nextSequence; sequence++) {
+            missed.add(ring[(int) (sequence % ring.length)]);
+        }
+        return missed;
+    }
+
+    private boolean send(SseEmitter emitter, Entry entry) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(epoch + "-" + entry.sequence())
+                    .name(entry.change().getType().toLowerCase(Locale.ROOT))
+                    .data(entry.change(), MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // the client has gone away; the container completes the emitter
+            logger.debug("Dropping book change subscriber", e);
+            subscribers.remove(emitter);
+            return false;
+        }
+    }
+
+    private void heartbeat() {
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event().comment(""));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(emitter);
+            }
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.usmobile.demo.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.usmobile.demo.config.CacheConfig;
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.entity.BookDAO;
+import com.usmobile.demo.mapper.BookMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the in-process caches of this instance coherent with writes made by other instances, by following a
+ * MongoDB change stream on the book collection. Every insert, update, replace or delete evicts the cached book
+ * and is republished as a {@link BookChangedEvent} of origin {@link BookChangedEvent.Origin#CHANGE_STREAM}, which
+ * clears the serialized listings and updates the autocomplete index. Writes made by this instance come back
+ * through the stream as well; the caches and the index handle them twice harmlessly, and the change feed sends
+ * only the republished events, so clients see each write once.
+ * <p>
+ * A change that cannot be handled is logged and its book evicted; the stream goes on with the next change.
+ * <p>
+ * The resume token is saved per instance (at most every {@code tokenSaveInterval}) so a reconnect or restart
+ * resumes after the last event handled. When the oplog no longer holds that point, the book caches and
+ * listings are dropped and the stream starts from now. Change streams require a replica set, so the listener
+ * is off unless books.change-stream.enabled is set.
+ */
+@Component
+@ConditionalOnProperty(name = "books.change-stream.enabled", havingValue = "true")
+public class BookChangeStreamListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookChangeStreamListener.class);
+
+    /**
+     * Collection holding the last saved resume token of each instance.
+     */
+    static final String TOKEN_COLLECTION = "bookChangeStreamTokens";
+
+    /**
+     * Server error codes telling that the stream cannot resume from the given token.
+     */
+    private static final int INVALID_RESUME_TOKEN = 260;
+    private static final int CHANGE_STREAM_FATAL_ERROR = 280;
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final MongoTemplate mongoTemplate;
+    private final BookMapper bookMapper;
+    private final Cache bookCache;
+    private final Cache isbnCache;
+    private final ObjectProvider<BookPageResponseCache> pageCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String instanceId;
+    private final long tokenSaveIntervalNanos;
+    private final long retryDelayMillis;
+
+    private final Thread watcher;
+    private volatile boolean running;
+    private BsonDocument resumeToken;
+    private BsonDocument savedToken;
+    private long tokenSavedAt;
+
+    /**
+     * Constructs a new BookChangeStreamListener instance with the required dependencies.
+     *
+     * @param mongoTemplate     the mongo template
+     * @param bookMapper        the book mapper instance
+     * @param cacheManager      the cache manager holding the book caches
+     * @param pageCache         the serialized listings, present in servlet mode only
+     * @param eventPublisher    the publisher of book change events
+     * @param instanceId        the key under which this instance saves its resume token
+     * @param tokenSaveInterval the shortest time between two saves of the resume token
+     * @param retryDelay        the time waited before reopening a failed stream
+     */
+    public BookChangeStreamListener(MongoTemplate mongoTemplate, BookMapper bookMapper, CacheManager cacheManager,
+                                    ObjectProvider<BookPageResponseCache> pageCache,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${books.change-stream.instance-id:${HOSTNAME:local}}") String instanceId,
+                                    @Value("${books.change-stream.token-save-interval:1s}") Duration tokenSaveInterval,
+                                    @Value("${books.change-stream.retry-delay:1s}") Duration retryDelay) {
+        this.mongoTemplate = mongoTemplate;
+        this.bookMapper = bookMapper;
+        this.bookCache = cacheManager.getCache(CacheConfig.BOOKS_BY_ID);
+        this.isbnCache = cacheManager.getCache(CacheConfig.BOOK_IDS_BY_ISBN);
+        this.pageCache = pageCache;
+        this.eventPublisher = eventPublisher;
+        this.instanceId = instanceId;
+        this.tokenSaveIntervalNanos = tokenSaveInterval.toNanos();
+        this.retryDelayMillis = retryDelay.toMillis();
+        this.watcher = Thread.ofPlatform().name("book-change-stream").daemon().unstarted(this::run);
+    }
+
+    /**
+     * Loads the saved resume token and starts following the change stream.
+     */
+    @PostConstruct
+    public void start() {
+        resumeToken = loadToken();
+        savedToken = resumeToken;
+        running = true;
+        watcher.start();
+    }
+
+    /**
+     * Stops following the change stream and saves the resume token.
+     *
+     * @throws InterruptedException if interrupted while waiting for the watcher thread
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        watcher.interrupt();
+        watcher.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void run() {
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> opened = open()) {
+                logger.info(resumeToken == null ? "Following book changes from now"
+                        : "Following book changes from the saved resume token");
+                while (running) {
+                    ChangeStreamDocument<Document> change = opened.tryNext();
+                    if (change != null && !handle(change)) {
+                        break;
+                    }
+                    if (opened.getResumeToken() != null) {
+                        resumeToken = opened.getResumeToken();
+                    }
+                    saveToken(false);
+                }
+            } catch (RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                if (e instanceof MongoException mongoException && cannotResume(mongoException)) {
+                    logger.warn("Book changes since the saved resume token are lost, dropping cached books", e);
+                    resumeToken = null;
+                    invalidateAll();
+                } else if (e instanceof MongoException) {
+                    logger.warn("Book change stream interrupted, resuming", e);
+                } else {
+                    logger.error("Unexpected error following book changes, resuming", e);
+                }
+                try {
+                    Thread.sleep(retryDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    break;
+                }
+            }
+        }
+        // clear a pending interrupt from stop(), which would fail the final save
+        Thread.interrupted();
+        saveToken(true);
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open() {
+        var stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(BookDAO.class))
+                .watch()
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+        return stream.cursor();
+    }
+
+    /**
+     * Handles one change stream event.
+     *
+     * @param change the event
+     * @return false if the stream has been invalidated and must be reopened from now
+     */
+    private boolean handle(ChangeStreamDocument<Document> change) {
+        if (change.getOperationType() == OperationType.INVALIDATE) {
+            // the collection was dropped or renamed; an invalidated stream cannot be resumed
+            logger.warn("Book change stream invalidated, dropping cached books");
+            resumeToken = null;
+            invalidateAll();
+            return false;
+        }
+        if (change.getDocumentKey() != null) {
+            onChange(change.getOperationType(), idOf(change.getDocumentKey()), change.getFullDocument());
+        }
+        return true;
+    }
+
+    /**
+     * Evicts the changed book and republishes the change to the other in-process views.
+     * A change that cannot be read or republished is logged, and the listings are dropped in case they missed it.
+     *
+     * @param type         the kind of change
+     * @param id           the ID of the changed book
+     * @param fullDocument the book as stored now, or null if it has been deleted since
+     */
+    void onChange(OperationType type, String id, Document fullDocument) {
+        bookCache.evict(id);
+        try {
+            republish(type, id, fullDocument);
+        } catch (RuntimeException e) {
+            // a failing conversion or listener must not stop the stream
+            logger.error("Error handling the change of book {}", id, e);
+            bookCache.evict(id);
+            pageCache.ifAvailable(BookPageResponseCache::invalidateAll);
+        }
+    }
+
+    private void republish(OperationType type, String id, Document fullDocument) {
+        switch (type) {
+            case INSERT, UPDATE, REPLACE -> {
+                if (fullDocument == null) {
+                    eventPublisher.publishEvent(BookChangedEvent.deleted(id).fromChangeStream());
+                    return;
+                }
+                BookDTO book = bookMapper.toCore(mongoTemplate.getConverter().read(BookDAO.class, fullDocument));
+                eventPublisher.publishEvent((type == OperationType.INSERT
+                        ? BookChangedEvent.created(book)
+                        : BookChangedEvent.updated(book)).fromChangeStream());
+            }
+            case DELETE -> eventPublisher.publishEvent(BookChangedEvent.deleted(id).fromChangeStream());
+            default -> {
+                // drop, rename and other collection-level events are followed by an invalidate
+            }
+        }
+    }
+
+    /**
+     * Drops every cached book and listing, after changes may have been missed.
+     */
+    void invalidateAll() {
+        bookCache.clear();
+        isbnCache.clear();
+        pageCache.ifAvailable(BookPageResponseCache::invalidateAll);
+    }
+
+    static String idOf(BsonDocument documentKey) {
+        BsonValue id = documentKey.get("_id");
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+
+    private static boolean cannotResume(MongoException e) {
+        if (e instanceof MongoCommandException command) {
+            int code = command.getErrorCode();
+            return code == CHANGE_STREAM_HISTORY_LOST || code == CHANGE_STREAM_FATAL_ERROR
+                    || code == INVALID_RESUME_TOKEN;
+        }
+        return false;
+    }
+
+    private MongoCollection<Document> tokens() {
+        return mongoTemplate.getCollection(TOKEN_COLLECTION);
+    }
+
+    private BsonDocument loadToken() {
+        try {
+            Document saved = tokens().find(Filters.eq("_id", instanceId)).first();
+            return saved == null ? null : BsonDocument.parse(saved.getString("token"));
+        } catch (Exception e) {
+            logger.warn("Error loading the book change stream resume token, following changes from now", e);
+            return null;
+        }
+    }
+
+    /**
+     * Saves the current resume token if it changed, at most once per save interval unless forced.
+     *
+     * @param force whether to save regardless of the interval
+     */
+    private void saveToken(boolean force) {
+        if (resumeToken == null || resumeToken.equals(savedToken)
+                || (!force && System.nanoTime() - tokenSavedAt < tokenSaveIntervalNanos)) {
+            return;
+        }
+        try {
+            tokens().replaceOne(Filters.eq("_id", instanceId),
+                    new Document("_id", instanceId)
+                            .append("token", resumeToken.toJson())
+                            .append("savedAt", new Date()),
+                    new ReplaceOptions().upsert(true));
+            savedToken = resumeToken;
+            tokenSavedAt = System.nanoTime();
+        } catch (Exception e) {
+            logger.warn("Error saving the book change stream resume token", e);
+        }
+    }
+}
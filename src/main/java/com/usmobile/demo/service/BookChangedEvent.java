@@ -0,0 +1,54 @@
+package com.usmobile.demo.service;
+
+import com.usmobile.demo.core.BookDTO;
+
+/**
+ * Published by the book services after a book has been written, so in-process views of the catalog can follow
+ * changes without querying the database. With the change stream enabled, every write, including those made by
+ * this instance, is published a second time as it comes back through the stream.
+ *
+ * @param type   what happened to the book
+ * @param id     the ID of the book
+ * @param book   the book as stored after the change, or null when it was deleted
+ * @param origin who published the change
+ */
+public record BookChangedEvent(Type type, String id, BookDTO book, Origin origin) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public enum Origin {
+        /**
+         * Published by this instance right after its own write.
+         */
+        LOCAL,
+        /**
+         * Republished from the change stream, for writes of any instance.
+         */
+        CHANGE_STREAM
+    }
+
+    public static BookChangedEvent created(BookDTO book) {
+        return new BookChangedEvent(Type.CREATED, book.getId(), book, Origin.LOCAL);
+    }
+
+    public static BookChangedEvent updated(BookDTO book) {
+        return new BookChangedEvent(Type.UPDATED, book.getId(), book, Origin.LOCAL);
+    }
+
+    public static BookChangedEvent deleted(String id) {
+        return new BookChangedEvent(Type.DELETED, id, null, Origin.LOCAL);
+    }
+
+    /**
+     * Returns the same change as republished from the change stream.
+     *
+     * @return the change with origin {@link Origin#CHANGE_STREAM}
+     */
+    public BookChangedEvent fromChangeStream() {
+        return new BookChangedEvent(type, id, book, Origin.CHANGE_STREAM);
+    }
+}
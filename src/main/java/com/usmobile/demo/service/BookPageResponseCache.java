@@ -0,0 +1,165 @@
+package com.usmobile.demo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usmobile.demo.config.CacheConfig;
+import com.usmobile.demo.core.BookQuery;
+import com.usmobile.demo.exception.ErrorMessageEnum;
+import com.usmobile.demo.exception.ServiceException;
+import com.usmobile.demo.util.CborHelper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of serialized GET /books responses, so a repeated listing is answered without a database query and
+ * without running Jackson again. Each entry holds the JSON or CBOR bytes, a gzip copy for large JSON payloads
+ * and the ETag; the two encodings of a page are cached under separate keys.
+ * The whole cache is cleared on every book change; a generation counter keeps a page read before a change
+ * from being stored after it.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BookPageResponseCache {
+
+    /**
+     * A serialized response.
+     *
+     * @param body the JSON or CBOR bytes
+     * @param gzip the gzip compressed JSON, or null if the payload is CBOR or too small to be worth compressing
+     * @param etag the ETag of the page
+     */
+    public record CachedPage(byte[] body, byte[] gzip, String etag) {
+
+        /**
+         * The approximate heap retained by the entry, used to bound the cache by size.
+         *
+         * @return the weight in bytes
+         */
+        public int weight() {
+            return body.length + (gzip == null ? 0 : gzip.length) + etag.length() * 2;
+        }
+    }
+
+    private final Cache cache;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final int gzipMinSize;
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructs a new BookPageResponseCache instance with the required dependencies.
+     *
+     * @param cacheManager the cache manager holding the page cache
+     * @param objectMapper the object mapper used by the MVC message converters
+     * @param gzipMinSize  the smallest payload, in bytes, that is also stored gzip compressed
+     */
+    public BookPageResponseCache(CacheManager cacheManager, ObjectMapper objectMapper,
+                                 @Value("${books.page-cache.gzip-min-size:1024}") int gzipMinSize) {
+        this.cache = cacheManager.getCache(CacheConfig.BOOK_PAGES);
+        this.objectMapper = objectMapper;
+        this.cborMapper = CborHelper.newMapper();
+        this.gzipMinSize = gzipMinSize;
+    }
+
+    /**
+     * Builds the cache key of a listing request in the given encoding.
+     *
+     * @param query the filters, sort key and projection
+     * @param limit the page size
+     * @param after the cursor, or null for the first page
+     * @param cbor  whether the response is encoded as CBOR rather than JSON
+     * @return the key
+     */
+    public static String key(BookQuery query, int limit, String after, boolean cbor) {
+        return (cbor ? "cbor|" : "") + limit + "|" + after + "|" + query;
+    }
+
+    /**
+     * Returns the cached response for a key.
+     *
+     * @param key the key built by {@link #key(BookQuery, int, String, boolean)}
+     * @return the cached response, or null
+     */
+    public CachedPage get(String key) {
+        return cache.get(key, CachedPage.class);
+    }
+
+    /**
+     * Returns the current generation, to be read before the page is loaded and passed back to
+     * {@link #put(String, long, Object, String, boolean)}.
+     *
+     * @return the generation
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Serializes a response to JSON or CBOR and caches it, unless a book changed since the given generation
+     * was read. Only JSON is also stored gzip compressed, since CBOR is already compact.
+     *
+     * @param key        the key built by {@link #key(BookQuery, int, String, boolean)}
+     * @param generation the generation read before the page was loaded
+     * @param response   the response to serialize
+     * @param etag       the ETag of the page
+     * @param cbor       whether to encode the response as CBOR rather than JSON
+     * @return the serialized response, cached or not
+     * @throws ServiceException if the response cannot be serialized
+     */
+    public CachedPage put(String key, long generation, Object response, String etag, boolean cbor) {
+        byte[] body;
+        try {
+            body = (cbor ? cborMapper : objectMapper).writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new ServiceException(ErrorMessageEnum.UNEXPECTED_ERROR_OCCURRED.getMessage("serializing books page"), e);
+        }
+        CachedPage page = new CachedPage(body, !cbor && body.length >= gzipMinSize ? gzip(body) : null, etag);
+
+        if (this.generation.get() == generation) {
+            cache.put(key, page);
+            // a change that landed while the entry was being stored must not leave it behind
+            if (this.generation.get() != generation) {
+                cache.evict(key);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Drops every cached response, since any book change may alter any listing.
+     *
+     * @param event the change
+     */
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        invalidateAll();
+    }
+
+    /**
+     * Drops every cached response.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -1,25 +1,56 @@
 package com.usmobile.demo.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import com.usmobile.demo.config.CacheConfig;
+import com.usmobile.demo.core.BookBatchItemResultDTO;
+import com.usmobile.demo.core.BookBatchItemStatus;
 import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.core.BookPageDTO;
+import com.usmobile.demo.core.BookQuery;
+import com.usmobile.demo.core.BookSearchMode;
+import com.usmobile.demo.core.BookSearchPageDTO;
+import com.usmobile.demo.core.BookSyncDTO;
+import com.usmobile.demo.core.BookWriteDTO;
 import com.usmobile.demo.entity.BookDAO;
+import com.usmobile.demo.entity.BookTombstoneDAO;
 import com.usmobile.demo.exception.DuplicateIsbnException;
 import com.usmobile.demo.exception.EntityNotFoundException;
 import com.usmobile.demo.exception.ErrorMessageEnum;
+import com.usmobile.demo.exception.PreconditionFailedException;
 import com.usmobile.demo.exception.ServiceException;
+import com.usmobile.demo.exception.ServiceUnavailableException;
+import com.usmobile.demo.exception.TooManyRequestsException;
 import com.usmobile.demo.mapper.BookMapper;
+import com.usmobile.demo.repository.BookPageRequest;
 import com.usmobile.demo.repository.BookRepositoryInterface;
+import com.usmobile.demo.repository.BookSortField;
 import com.usmobile.demo.util.BookHelper;
+import com.usmobile.demo.util.BookPatch;
+import com.usmobile.demo.util.CursorHelper;
 import org.apache.coyote.BadRequestException;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.Locale;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service implementation for managing books.
@@ -29,21 +60,61 @@ public class BookServiceImpl implements BookServiceInterface {
 
     private static final Logger logger = LoggerFactory.getLogger(BookServiceImpl.class);
 
+    /**
+     * Upper bound for the page size a client may request.
+     */
+    public static final int MAX_PAGE_LIMIT = 500;
+
+    /**
+     * How far back an incremental sync may start: deletions older than this are no longer known.
+     */
+    static final Duration TOMBSTONE_RETENTION = DurationStyle.detectAndParse(BookTombstoneDAO.RETENTION);
+
+    /**
+     * Name of the sort key encoded in the cursors of incremental syncs.
+     */
+    private static final String MODIFIED_CURSOR_KEY = "lastModified";
+
     private final BookRepositoryInterface bookRepository;
     private final BookMapper bookMapper;
-    private final ObjectMapper objectMapper;
+    private final Cache bookCache;
+    private final Cache isbnCache;
+    private final BookAutocompleteIndex autocompleteIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookWriteBehindQueue writeBehindQueue;
+    private final int batchChunkSize;
+    private final int batchMaxSize;
+    private final Duration syncClockSkew;
 
     /**
      * Constructs a new BookServiceImpl instance with the required dependencies.
      *
      * @param bookRepository the book repository interface
      * @param bookMapper     the book mapper instance
-     * @param objectMapper   the object mapper instance
+     * @param cacheManager   the cache manager holding the book caches
+     * @param autocompleteIndex the in-memory title and author completions
+     * @param eventPublisher the publisher of book change events
+     * @param writeBehindQueue the queue of creates and updates accepted with 202
+     * @param batchChunkSize the number of books written per bulk insert
+     * @param batchMaxSize   the maximum number of books accepted in one batch request
+     * @param syncClockSkew  how far behind now incremental syncs stop, so that writes still in flight are not skipped
      */
-    public BookServiceImpl(BookRepositoryInterface bookRepository, BookMapper bookMapper, ObjectMapper objectMapper) {
+    public BookServiceImpl(BookRepositoryInterface bookRepository, BookMapper bookMapper,
+                           CacheManager cacheManager, BookAutocompleteIndex autocompleteIndex,
+                           ApplicationEventPublisher eventPublisher, BookWriteBehindQueue writeBehindQueue,
+                           @Value("${books.batch.chunk-size:500}") int batchChunkSize,
+                           @Value("${books.batch.max-size:10000}") int batchMaxSize,
+                           @Value("${books.sync.clock-skew:5s}") Duration syncClockSkew) {
         this.bookRepository = bookRepository;
         this.bookMapper = bookMapper;
-        this.objectMapper = objectMapper;
+        this.bookCache = cacheManager.getCache(CacheConfig.BOOKS_BY_ID);
+        this.isbnCache = cacheManager.getCache(CacheConfig.BOOK_IDS_BY_ISBN);
+        this.autocompleteIndex = autocompleteIndex;
+        this.eventPublisher = eventPublisher;
+        this.writeBehindQueue = writeBehindQueue;
+        this.batchChunkSize = batchChunkSize;
+        this.batchMaxSize = batchMaxSize;
+        this.syncClockSkew = syncClockSkew;
     }
 
     /**
@@ -63,10 +134,15 @@ public class BookServiceImpl implements BookServiceInterface {
             BookDAO savedBook = bookRepository.save(bookToPersist);
 
             logger.info("Book created successfully with ID {}", savedBook.getId());
-            return bookMapper.toCore(savedBook);
+            isbnCache.put(savedBook.getIsbn(), savedBook.getId());
+            BookDTO createdBook = bookMapper.toCore(savedBook);
+            eventPublisher.publishEvent(BookChangedEvent.created(createdBook));
+            return createdBook;
         } catch (DataIntegrityViolationException e) {
             logger.error(ErrorMessageEnum.ISBN_ALREADY_EXISTS.getMessage(newBook.getIsbn()), e);
             throw new DuplicateIsbnException(ErrorMessageEnum.ISBN_ALREADY_EXISTS.getMessage(newBook.getIsbn()));
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             logger.error(ErrorMessageEnum.UNEXPECTED_ERROR_OCCURRED.getMessage("creating book"), e);
             throw new ServiceException(ErrorMessageEnum.UNEXPECTED_ERROR_OCCURRED.getMessage("creating book"), e);
@@ -74,34 +150,210 @@ public class BookServiceImpl implements BookServiceInterface {
     }
 
     /**
-     * Updates an existing book.
+     * Creates books in bulk. Invalid books are reported and skipped, valid ones are written with unordered
+     * bulk inserts of at most {@code batchChunkSize} books, so one failing book never aborts the others.
+     *
+     * @param newBooks the books to create
+     * @return one result per given book, in request order
+     * @throws BadRequestException if the batch is empty or larger than allowed
+     * @throws ServiceException    if a bulk insert fails as a whole
+     */
+    @Override
+    public List<BookBatchItemResultDTO> createBooks(List<BookDTO> newBooks) throws BadRequestException {
+        if (newBooks == null || newBooks.isEmpty() || newBooks.size() > batchMaxSize) {
+            throw new BadRequestException(ErrorMessageEnum.INVALID_BATCH_SIZE.getMessage(batchMaxSize));
+        }
+
+        logger.info("Creating batch of {} books", newBooks.size());
+        BookBatchItemResultDTO[] results = new BookBatchItemResultDTO[newBooks.size()];
+        List<BookDAO> chunk = new ArrayList<>(Math.min(batchChunkSize, newBooks.size()));
+        List<Integer> chunkIndexes = new ArrayList<>(Math.min(batchChunkSize, newBooks.size()));
+
+        for (int i = 0; i < newBooks.size(); i++) {
+            BookDTO newBook = newBooks.get(i);
+            String violation = newBook == null
+                    ? ErrorMessageEnum.INVALID_BOOK_DATA.getMessage("null")
+                    : BookHelper.firstViolationMessage(newBook);
+            if (violation != null) {
+                results[i] = new BookBatchItemResultDTO(i, BookBatchItemStatus.INVALID, null, violation);
+                continue;
+            }
+
+            BookDAO bookToPersist = bookMapper.toDAO(newBook);
+            // IDs are assigned up front so they can be reported without reading the documents back
+            bookToPersist.setId(new ObjectId().toHexString());
+            chunk.add(bookToPersist);
+            chunkIndexes.add(i);
+            if (chunk.size() == batchChunkSize) {
+                insertChunk(chunk, chunkIndexes, results);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, chunkIndexes, results);
+        }
+
+        logger.info("Batch of {} books processed", newBooks.size());
+        return List.of(results);
+    }
+
+    /**
+     * Writes one chunk of a batch with an unordered bulk insert, records a result for each of its books
+     * and clears the chunk for reuse.
+     *
+     * @param chunk        the books to insert
+     * @param chunkIndexes the position in the batch request of each book of the chunk
+     * @param results      the batch results to fill in
+     */
+    private void insertChunk(List<BookDAO> chunk, List<Integer> chunkIndexes, BookBatchItemResultDTO[] results) {
+        List<BulkWriteError> errors;
+        try {
+            errors = bookRepository.insertUnordered(chunk);
+        } catch (ServiceUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error(ErrorMessageEnum.UNEXPECTED_ERROR_OCCURRED.getMessage("creating books"), e);
+            throw new ServiceException(ErrorMessageEnum.UNEXPECTED_ERROR_OCCURRED.getMessage("creating books"), e);
+        }
+
+        for (BulkWriteError error : errors) {
+            BookDAO failed = chunk.get(error.getIndex());
+            int index = chunkIndexes.get(error.getIndex());
+            if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                results[index] = new BookBatchItemResultDTO(index, BookBatchItemStatus.DUPLICATE_ISBN, null,
+                        ErrorMessageEnum.ISBN_ALREADY_EXISTS.getMessage(failed.getIsbn()));
+            } else {
+                logger.error(ErrorMessageEnum.BATCH_ITEM_WRITE_ERROR.getMessage(error.getMessage()));
+                results[index] = new BookBatchItemResultDTO(index, BookBatchItemStatus.FAILED, null,
+                        ErrorMessageEnum.BATCH_ITEM_WRITE_ERROR.getMessage(error.getMessage()));
+            }
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            int index = chunkIndexes.get(i);
+            if (results[index] == null) {
+                BookDAO created = chunk.get(i);
+                isbnCache.put(created.getIsbn(), created.getId());
+                eventPublisher.publishEvent(BookChangedEvent.created(bookMapper.toCore(created)));
+                results[index] = new BookBatchItemResultDTO(index, BookBatchItemStatus.CREATED, created.getId(), null);
+            }
+        }
+
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    /**
+     * Updates an existing book. Only the non-null fields are validated, and they are written with a single
+     * findAndModify $set, so concurrent updates of different fields do not overwrite each other.
+     * A cached ISBN entry left behind by an ISBN change is ignored on lookup, see {@link #findBookByIsbn(String)}.
      *
      * @param bookDTO the book to update
      * @return the updated book
      * @throws BadRequestException    if the update request is empty
      * @throws EntityNotFoundException if the book to update does not exist
-     * @throws ServiceException       if an unexpected error occurs during update
+     * @throws DuplicateIsbnException if the new ISBN already belongs to another book
      */
     @Override
     public BookDTO updateBook(BookDTO bookDTO) throws BadRequestException {
-        if (isEmptyUpdate(bookDTO)) {
+        return updateBook(bookDTO, null);
+    }
+
+    /**
+     * Updates an existing book like {@link #updateBook(BookDTO)}, but only if it still has the expected version.
+     * The version is part of the findAndModify filter, so the check and the write are atomic.
+     *
+     * @param bookDTO         the book to update
+     * @param expectedVersion the version the client last read, or null to update any version
+     * @return the updated book
+     * @throws BadRequestException         if the update request is empty
+     * @throws EntityNotFoundException     if the book to update does not exist
+     * @throws PreconditionFailedException if the book exists with another version
+     * @throws DuplicateIsbnException      if the new ISBN already belongs to another book
+     */
+    @Override
+    public BookDTO updateBook(BookDTO bookDTO, Long expectedVersion) throws BadRequestException {
+        BookPatch patch = BookPatch.of(bookDTO);
+        if (patch.isEmpty()) {
             logger.warn(ErrorMessageEnum.EMPTY_UPDATE_REQUEST.getMessage());
             throw new BadRequestException(ErrorMessageEnum.EMPTY_UPDATE_REQUEST.getMessage());
         }
 
         logger.info("Updating book with ID {}", bookDTO.getId());
-        BookDAO existingBook = bookRepository.findById(bookDTO.getId())
-                .orElseThrow(() -> new EntityNotFoundException(ErrorMessageEnum.BOOK_NOT_FOUND.getMessage(bookDTO.getId())));
+        Update update = BookHelper.toValidatedUpdate(patch);
 
-        BookHelper.mergeNonNullWithValidation(bookDTO, existingBook);
+        BookDAO updatedEntity;
+        try {
+            updatedEntity = bookRepository.updateFields(bookDTO.getId(), expectedVersion, update)
+                    .orElseThrow(() -> notUpdated(bookDTO.getId(), expectedVersion));
+        } catch (DataIntegrityViolationException e) {
+            logger.error(ErrorMessageEnum.ISBN_ALREADY_EXISTS.getMessage(bookDTO.getIsbn()), e);
+            throw new DuplicateIsbnException(ErrorMessageEnum.ISBN_ALREADY_EXISTS.getMessage(bookDTO.getIsbn()));
+        }
 
-        BookDAO updatedEntity = bookRepository.save(existingBook);
         logger.info("Book updated successfully with ID {}", updatedEntity.getId());
-        return bookMapper.toCore(updatedEntity);
+        BookDTO updatedBook = bookMapper.toCore(updatedEntity);
+        bookCache.put(updatedBook.getId(), updatedBook);
+        isbnCache.put(updatedBook.getIsbn(), updatedBook.getId());
+        eventPublisher.publishEvent(BookChangedEvent.updated(updatedBook));
+        return updatedBook;
     }
 
     /**
-     * Finds a book by ID.
+     * Queues a book for creation by the write-behind queue. The book has been validated by the caller;
+     * a duplicate ISBN is reported through the status of the write.
+     *
+     * @param newBook the book to create
+     * @return the queued write, with the ID assigned to the book
+     * @throws TooManyRequestsException if the write queue is full
+     */
+    @Override
+    public BookWriteDTO createBookAsync(BookDTO newBook) {
+        BookWriteDTO write = writeBehindQueue.enqueueCreate(newBook);
+        logger.info("Queued creation of book with ID {}", write.getBookId());
+        return write;
+    }
+
+    /**
+     * Queues a partial update for the write-behind queue. Empty and invalid updates are rejected now,
+     * like synchronous ones; a missing book or a duplicate ISBN is reported through the status of the write.
+     *
+     * @param bookDTO the book to update
+     * @return the queued write
+     * @throws BadRequestException      if the update request is empty
+     * @throws TooManyRequestsException if the write queue is full
+     */
+    @Override
+    public BookWriteDTO updateBookAsync(BookDTO bookDTO) throws BadRequestException {
+        BookPatch patch = BookPatch.of(bookDTO);
+        if (patch.isEmpty()) {
+            logger.warn(ErrorMessageEnum.EMPTY_UPDATE_REQUEST.getMessage());
+            throw new BadRequestException(ErrorMessageEnum.EMPTY_UPDATE_REQUEST.getMessage());
+        }
+
+        BookWriteDTO write = writeBehindQueue.enqueueUpdate(bookDTO.getId(), BookHelper.toValidatedUpdate(patch));
+        logger.info("Queued update of book with ID {}", bookDTO.getId());
+        return write;
+    }
+
+    /**
+     * Finds the status of a queued write.
+     *
+     * @param trackingId the tracking ID returned when the write was accepted
+     * @return the write
+     * @throws EntityNotFoundException if the write is unknown or its status has expired
+     */
+    @Override
+    public BookWriteDTO findWrite(String trackingId) {
+        BookWriteDTO write = writeBehindQueue.find(trackingId);
+        if (write == null) {
+            throw new EntityNotFoundException(ErrorMessageEnum.WRITE_NOT_FOUND.getMessage(trackingId));
+        }
+        return write;
+    }
+
+    /**
+     * Finds a book by ID. Books are served from the book cache when present and cached after being read.
+     * The read runs as the cache's atomic load of the entry, so an update, delete or eviction of the book
+     * made meanwhile waits for the load and then wins, instead of being overwritten by the book read before it.
      *
      * @param id the book ID
      * @return the book
@@ -109,64 +361,416 @@ public class BookServiceImpl implements BookServiceInterface {
      */
     @Override
     public BookDTO findBookById(String id) {
-        logger.info("Finding book with ID {}", id);
-        return bookRepository.findById(id)
+        try {
+            return bookCache.get(id, () -> {
+                logger.info("Finding book with ID {}", id);
+                return bookRepository.findById(id)
+                        .map(bookMapper::toCore)
+                        .orElseThrow(() -> new EntityNotFoundException(ErrorMessageEnum.BOOK_NOT_FOUND.getMessage(id)));
+            });
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Finds a book by ID and keeps only the requested properties. The whole book is read and cached, so the
+     * projection is applied in memory and later requests for other properties are still served from the cache.
+     *
+     * @param id     the book ID
+     * @param fields the comma-separated properties to return, or null for all
+     * @return the projected book
+     * @throws BadRequestException     if a requested field is not a book property
+     * @throws EntityNotFoundException if the book with the given ID does not exist
+     */
+    @Override
+    public BookDTO findBookById(String id, String fields) throws BadRequestException {
+        Set<String> selected = BookHelper.parseFields(fields);
+        return BookHelper.project(findBookById(id), selected);
+    }
+
+    /**
+     * Finds a book by ISBN. A cached ISBN to ID entry is only used when the book it points to is cached
+     * and still carries that ISBN; otherwise the book is read through the unique ISBN index and both caches
+     * are refreshed. Stale entries left behind by updates or deletes are therefore never served.
+     *
+     * @param isbn the book ISBN
+     * @return the book
+     * @throws EntityNotFoundException if no book has the given ISBN
+     */
+    @Override
+    public BookDTO findBookByIsbn(String isbn) {
+        String cachedId = isbnCache.get(isbn, String.class);
+        if (cachedId != null) {
+            BookDTO cached = bookCache.get(cachedId, BookDTO.class);
+            if (cached != null && isbn.equals(cached.getIsbn())) {
+                return cached;
+            }
+        }
+
+        logger.info("Finding book with ISBN {}", isbn);
+        BookDTO book = bookRepository.findByIsbn(isbn)
+                .map(bookMapper::toCore)
+                .orElseThrow(() -> {
+                    isbnCache.evict(isbn);
+                    return new EntityNotFoundException(ErrorMessageEnum.BOOK_WITH_ISBN_NOT_FOUND.getMessage(isbn));
+                });
+        bookCache.put(book.getId(), book);
+        isbnCache.put(isbn, book.getId());
+        return book;
+    }
+
+    /**
+     * Retrieves one keyset page of a filtered, sorted book listing.
+     * One extra book is fetched to find out whether a next page exists without issuing a count query.
+     *
+     * @param query the filters and sort key
+     * @param limit the maximum number of books to return
+     * @param after the opaque cursor returned with the previous page, or null for the first page
+     * @return the page of books and the cursor for the next one
+     * @throws BadRequestException if a parameter is out of range or the cursor is malformed
+     */
+    @Override
+    public BookPageDTO getBooksPage(BookQuery query, int limit, String after) throws BadRequestException {
+        BookPageRequest request = toPageRequest(query, limit, after);
+
+        logger.info("Retrieving books page with limit {} sorted by {} after cursor {}", limit, query.getSort(), after);
+        List<BookDAO> books = bookRepository.findPage(request);
+
+        String nextCursor = null;
+        if (books.size() > limit) {
+            books = books.subList(0, limit);
+            nextCursor = nextCursor(request, books.get(limit - 1));
+        }
+
+        List<BookDTO> bookDTOList = books.stream()
                 .map(bookMapper::toCore)
-                .orElseThrow(() -> new EntityNotFoundException(ErrorMessageEnum.BOOK_NOT_FOUND.getMessage(id)));
+                .map(book -> BookHelper.project(book, request.fields()))
+                .collect(Collectors.toList());
+        return new BookPageDTO(bookDTOList, nextCursor);
+    }
+
+    /**
+     * Validates the parameters of a listing request and resolves its cursor.
+     *
+     * @param query the filters and sort key
+     * @param limit the maximum number of books to return
+     * @param after the opaque cursor returned with the previous page, or null for the first page
+     * @return the page request, fetching one book more than the limit
+     * @throws BadRequestException if a parameter is out of range or the cursor is malformed
+     */
+    static BookPageRequest toPageRequest(BookQuery query, int limit, String after) throws BadRequestException {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new BadRequestException(ErrorMessageEnum.INVALID_PAGE_LIMIT.getMessage(MAX_PAGE_LIMIT));
+        }
+        if (query.getPublishedFrom() != null && query.getPublishedTo() != null
+                && query.getPublishedFrom().isAfter(query.getPublishedTo())) {
+            throw new BadRequestException(ErrorMessageEnum.INVALID_DATE_RANGE.getMessage());
+        }
+
+        String sort = query.getSort() == null || query.getSort().isBlank() ? BookSortField.ID.param() : query.getSort().trim();
+        boolean descending = sort.startsWith("-");
+        BookSortField sortField = BookSortField.fromParam(descending ? sort.substring(1) : sort);
+        if (sortField == null) {
+            throw new BadRequestException(ErrorMessageEnum.INVALID_SORT.getMessage(query.getSort()));
+        }
+
+        Set<String> fields = BookHelper.parseFields(query.getFields());
+
+        if (after == null || after.isBlank()) {
+            return new BookPageRequest(query, sortField, descending, null, null, limit + 1, fields);
+        }
+        if (sortField == BookSortField.ID) {
+            return new BookPageRequest(query, sortField, descending, null, CursorHelper.decode(after), limit + 1, fields);
+        }
+        CursorHelper.Position position = CursorHelper.decode(after, sortField.param());
+        Object afterValue = position.value();
+        if (sortField == BookSortField.PUBLISHED_DATE) {
+            try {
+                afterValue = LocalDate.parse(position.value());
+            } catch (DateTimeParseException e) {
+                throw new BadRequestException(ErrorMessageEnum.INVALID_CURSOR.getMessage(after));
+            }
+        }
+        return new BookPageRequest(query, sortField, descending, afterValue, position.lastId(), limit + 1, fields);
     }
 
     /**
-     * Retrieves all books.
+     * Builds the cursor resuming a listing after the given book.
      *
-     * @return the list of books
+     * @param request the request of the current page
+     * @param last    the last book of the current page
+     * @return the opaque cursor
+     */
+    static String nextCursor(BookPageRequest request, BookDAO last) {
+        if (request.sortField() == BookSortField.ID) {
+            return CursorHelper.encode(last.getId());
+        }
+        return CursorHelper.encode(request.sortField().param(), String.valueOf(request.sortField().valueOf(last)), last.getId());
+    }
+
+    /**
+     * Lists the books modified and deleted between modifiedSince and a checkpoint slightly behind now, so that
+     * a write timestamped before the checkpoint but not yet visible when the query runs is not skipped.
+     * Changed books are paged by modification time and ID; deleted IDs come with the last page, whose window
+     * covers every earlier page. A client may see a book twice across syncs, never miss one.
+     *
+     * @param modifiedSince the ISO-8601 checkpoint returned by the previous sync
+     * @param limit         the maximum number of changed books to return
+     * @param after         the opaque cursor of the previous page of the same sync, or null for the first page
+     * @return the changed books, the deleted book IDs and the checkpoint to sync from next time
+     * @throws BadRequestException if modifiedSince is malformed or older than deletions are kept,
+     *                             or the limit or cursor is invalid
      */
     @Override
-    public List<BookDTO> getAllBooks() {
-        logger.info("Retrieving all books");
-        return bookRepository.findAll().stream()
+    public BookSyncDTO getChangedBooks(String modifiedSince, int limit, String after) throws BadRequestException {
+        Instant since;
+        try {
+            since = Instant.parse(modifiedSince);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException(ErrorMessageEnum.INVALID_MODIFIED_SINCE.getMessage(modifiedSince));
+        }
+        Instant now = BookHelper.now();
+        if (since.isBefore(now.minus(TOMBSTONE_RETENTION))) {
+            throw new BadRequestException(ErrorMessageEnum.SYNC_CHECKPOINT_EXPIRED.getMessage(TOMBSTONE_RETENTION.toDays()));
+        }
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new BadRequestException(ErrorMessageEnum.INVALID_PAGE_LIMIT.getMessage(MAX_PAGE_LIMIT));
+        }
+
+        Instant from = since;
+        String afterId = null;
+        if (after != null && !after.isBlank()) {
+            CursorHelper.Position position = CursorHelper.decode(after, MODIFIED_CURSOR_KEY);
+            try {
+                from = Instant.ofEpochMilli(Long.parseLong(position.value()));
+            } catch (NumberFormatException e) {
+                throw new BadRequestException(ErrorMessageEnum.INVALID_CURSOR.getMessage(after));
+            }
+            afterId = position.lastId();
+        }
+        // never hand back a checkpoint earlier than the one given, which would only resend the same changes
+        Instant checkpoint = now.minus(syncClockSkew);
+        if (checkpoint.isBefore(since)) {
+            checkpoint = since;
+        }
+
+        logger.info("Retrieving books modified since {} with limit {} after cursor {}", since, limit, after);
+        List<BookDAO> books = bookRepository.findModified(from, afterId, checkpoint, limit + 1);
+        String nextCursor = null;
+        List<String> deletedIds = List.of();
+        if (books.size() > limit) {
+            books = books.subList(0, limit);
+            BookDAO last = books.get(limit - 1);
+            nextCursor = CursorHelper.encode(MODIFIED_CURSOR_KEY,
+                    String.valueOf(last.getLastModified().toEpochMilli()), last.getId());
+        } else {
+            deletedIds = bookRepository.findDeletedIds(since, checkpoint);
+        }
+
+        List<BookDTO> bookDTOList = books.stream()
                 .map(bookMapper::toCore)
                 .collect(Collectors.toList());
+        return new BookSyncDTO(bookDTOList, deletedIds, nextCursor, checkpoint);
+    }
+
+    /**
+     * Searches books by title and author, fetching one extra match to tell whether a next page exists.
+     *
+     * @param query the words to search for, or the prefix in PREFIX mode
+     * @param mode  TEXT or PREFIX, case-insensitive
+     * @param page  the zero-based page number
+     * @param size  the page size
+     * @return the page of matching books
+     * @throws BadRequestException if the query is blank, the mode unknown or the page out of range
+     */
+    @Override
+    public BookSearchPageDTO searchBooks(String query, String mode, int page, int size) throws BadRequestException {
+        BookSearchMode searchMode = validateSearch(query, mode, page, size);
+
+        logger.info("Searching books for '{}' in {} mode, page {} of size {}", query, searchMode, page, size);
+        long skip = (long) page * size;
+        List<BookDAO> books = searchMode == BookSearchMode.TEXT
+                ? bookRepository.searchText(query, skip, size + 1)
+                : bookRepository.searchPrefix(query, skip, size + 1);
+
+        boolean hasNext = books.size() > size;
+        List<BookDTO> bookDTOList = books.stream()
+                .limit(size)
+                .map(bookMapper::toCore)
+                .collect(Collectors.toList());
+        return new BookSearchPageDTO(bookDTOList, page, size, hasNext);
+    }
+
+    /**
+     * Validates the parameters of a search request.
+     *
+     * @param query the search query
+     * @param mode  the search mode, case-insensitive
+     * @param page  the zero-based page number
+     * @param size  the page size
+     * @return the parsed search mode
+     * @throws BadRequestException if the query is blank, the mode unknown or the page out of range
+     */
+    static BookSearchMode validateSearch(String query, String mode, int page, int size) throws BadRequestException {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException(ErrorMessageEnum.INVALID_SEARCH_QUERY.getMessage());
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_LIMIT) {
+            throw new BadRequestException(ErrorMessageEnum.INVALID_SEARCH_PAGE.getMessage(MAX_PAGE_LIMIT));
+        }
+        try {
+            return BookSearchMode.valueOf(String.valueOf(mode).trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(ErrorMessageEnum.INVALID_SEARCH_MODE.getMessage(mode));
+        }
     }
 
     /**
-     * Deletes a book by ID.
+     * Completes a title or author prefix from the in-memory autocomplete index.
+     *
+     * @param prefix the text typed so far
+     * @param limit  the maximum number of completions
+     * @return the completions, most common first
+     * @throws BadRequestException if the limit is out of range
+     */
+    @Override
+    public List<String> autocomplete(String prefix, int limit) throws BadRequestException {
+        if (limit < 1 || limit > BookAutocompleteIndex.MAX_LIMIT) {
+            throw new BadRequestException(ErrorMessageEnum.INVALID_PAGE_LIMIT.getMessage(BookAutocompleteIndex.MAX_LIMIT));
+        }
+        return autocompleteIndex.complete(prefix, limit);
+    }
+
+    /**
+     * Streams every book through a server-side cursor.
+     *
+     * @return a stream over all books, to be closed by the caller
+     */
+    @Override
+    public Stream<BookDTO> streamAllBooks() {
+        logger.info("Streaming all books");
+        return bookRepository.streamAllBy()
+                .map(bookMapper::toCore);
+    }
+
+    /**
+     * Deletes a book by ID with a single delete command; the deleted count tells whether the book existed.
+     * A tombstone is recorded for incremental syncs. The ISBN cache entry of the book is left to be discarded on lookup, see {@link #findBookByIsbn(String)}.
      *
      * @param id the book ID
      * @return true if deleted successfully
      * @throws EntityNotFoundException if the book with the given ID does not exist
      * @throws ServiceException       if an unexpected error occurs during deletion
      */
+    @Override
     public boolean deleteBook(String id) {
+        return deleteBook(id, null);
+    }
+
+    /**
+     * Deletes a book by ID like {@link #deleteBook(String)}, but only if it still has the expected version.
+     *
+     * @param id              the book ID
+     * @param expectedVersion the version the client last read, or null to delete any version
+     * @return true if deleted successfully
+     * @throws EntityNotFoundException     if the book with the given ID does not exist
+     * @throws PreconditionFailedException if the book exists with another version
+     * @throws ServiceException            if an unexpected error occurs during deletion
+     */
+    @Override
+    public boolean deleteBook(String id, Long expectedVersion) {
+        long deleted;
         try {
             logger.info("Deleting book with ID {}", id);
-            BookDAO existingEntity = bookRepository.findById(id)
-                    .orElseThrow(() -> new EntityNotFoundException(ErrorMessageEnum.BOOK_NOT_FOUND.getMessage(id)));
-
-            bookRepository.delete(existingEntity);
-
-            logger.info("Book deleted successfully with ID {}", id);
-            return true;
-        } catch (EntityNotFoundException e) {
+            deleted = expectedVersion == null
+                    ? bookRepository.removeById(id)
+                    : bookRepository.removeByIdAndVersion(id, expectedVersion);
+            bookCache.evict(id);
+        } catch (ServiceUnavailableException e) {
             throw e;
         } catch (Exception e) {
             logger.error(ErrorMessageEnum.BOOK_DELETION_ERROR.getMessage(id), e);
             throw new ServiceException(ErrorMessageEnum.BOOK_DELETION_ERROR.getMessage(id), e);
         }
+
+        if (deleted == 0) {
+            throw notUpdated(id, expectedVersion);
+        }
+        logger.info("Book deleted successfully with ID {}", id);
+        recordDeletions(List.of(id));
+        eventPublisher.publishEvent(BookChangedEvent.deleted(id));
+        return true;
     }
 
     /**
-     * Checks if the update request contains any non-null fields (excluding the ID).
-     * This prevents updates with no actual changes.
-     * LocalDate empty string is considered null (Jackson can't deserialize an empty string to a LocalDate)
+     * Deletes several books by ID with a single $in delete command. IDs that match no book are ignored; the command
+     * only reports how many books it deleted, so once any was deleted every requested ID gets a tombstone and a
+     * deleted event. Syncing clients and caches simply have nothing to drop for the IDs that did not exist.
      *
-     * @param bookDTO the book to update
-     * @return true if the update request is empty (i.e., no non-null fields)
+     * @param ids the book IDs
+     * @return the number of deleted books
+     * @throws BadRequestException if the list is empty or larger than allowed
+     * @throws ServiceException    if an unexpected error occurs during deletion
      */
-    private boolean isEmptyUpdate(BookDTO bookDTO) {
-        Map<String, Object> map = objectMapper.convertValue(bookDTO, Map.class);
-        map.remove("id");
-        map.values().removeIf(Objects::isNull);
-        return map.isEmpty();
+    @Override
+    public long deleteBooks(List<String> ids) throws BadRequestException {
+        if (ids == null || ids.isEmpty() || ids.size() > batchMaxSize) {
+            throw new BadRequestException(ErrorMessageEnum.INVALID_BATCH_SIZE.getMessage(batchMaxSize));
+        }
+
+        long deleted;
+        try {
+            logger.info("Deleting {} books", ids.size());
+            deleted = bookRepository.removeByIds(ids);
+            ids.forEach(bookCache::evict);
+        } catch (ServiceUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error(ErrorMessageEnum.BOOKS_DELETION_ERROR.getMessage(ids.size()), e);
+            throw new ServiceException(ErrorMessageEnum.BOOKS_DELETION_ERROR.getMessage(ids.size()), e);
+        }
+
+        logger.info("{} books deleted", deleted);
+        if (deleted > 0) {
+            recordDeletions(ids);
+            ids.forEach(id -> eventPublisher.publishEvent(BookChangedEvent.deleted(id)));
+        }
+        return deleted;
     }
-}
 
+    /**
+     * Writes the tombstones of books that are already deleted. A failure is only logged: the books are gone either
+     * way, so the request still succeeds and the deleted events are still published to evict the caches, and
+     * incremental syncs merely keep reporting the books until the clients reload.
+     *
+     * @param ids the IDs of the deleted books
+     */
+    private void recordDeletions(List<String> ids) {
+        try {
+            bookRepository.recordDeletions(ids);
+        } catch (Exception e) {
+            logger.error("Error recording the deletion of {} books", ids.size(), e);
+        }
+    }
+
+    /**
+     * Tells why a conditional write matched no book: either the book does not exist or it has another version.
+     * The cached copy is evicted in the latter case, since it may be the stale one the client read.
+     *
+     * @param id              the book ID
+     * @param expectedVersion the version the write was conditioned on, or null
+     * @return the exception to throw
+     */
+    private RuntimeException notUpdated(String id, Long expectedVersion) {
+        if (expectedVersion != null && bookRepository.existsById(id)) {
+            bookCache.evict(id);
+            logger.warn(ErrorMessageEnum.BOOK_VERSION_MISMATCH.getMessage(id, expectedVersion));
+            return new PreconditionFailedException(ErrorMessageEnum.BOOK_VERSION_MISMATCH.getMessage(id, expectedVersion));
+        }
+        return new EntityNotFoundException(ErrorMessageEnum.BOOK_NOT_FOUND.getMessage(id));
+    }
+}
@@ -1,10 +1,17 @@
 package com.usmobile.demo.service;
 
 
+import com.usmobile.demo.core.BookBatchItemResultDTO;
 import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.core.BookPageDTO;
+import com.usmobile.demo.core.BookQuery;
+import com.usmobile.demo.core.BookSearchPageDTO;
+import com.usmobile.demo.core.BookSyncDTO;
+import com.usmobile.demo.core.BookWriteDTO;
 import org.apache.coyote.BadRequestException;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookServiceInterface {
 
@@ -16,6 +23,15 @@ public interface BookServiceInterface {
      */
     BookDTO createBook(BookDTO bookDTO);
 
+    /**
+     * Creates several books at once, reporting the outcome of each book instead of failing the whole batch.
+     *
+     * @param bookDTOs the books to create
+     * @return one result per given book, in request order
+     * @throws BadRequestException if the batch is empty or too large
+     */
+    List<BookBatchItemResultDTO> createBooks(List<BookDTO> bookDTOs) throws BadRequestException;
+
 
     /**
      * Retrieves a book by its ID.
@@ -26,12 +42,76 @@ public interface BookServiceInterface {
     BookDTO findBookById(String id);
 
     /**
-     * Retrieves a list of all books.
+     * Retrieves a book by its ISBN.
      *
-     * @return a list of all book objects
+     * @param isbn the ISBN of the book to retrieve
+     * @return BookDTO
      */
+    BookDTO findBookByIsbn(String isbn);
 
-    List<BookDTO> getAllBooks();
+    /**
+     * Finds a book by ID, keeping only the requested properties.
+     *
+     * @param id     the book ID
+     * @param fields the comma-separated properties to return, or null for all
+     * @return the projected book
+     * @throws BadRequestException if a requested field is not a book property
+     */
+    BookDTO findBookById(String id, String fields) throws BadRequestException;
+
+    /**
+     * Retrieves one keyset page of a filtered, sorted book listing.
+     *
+     * @param query the filters and sort key
+     * @param limit the maximum number of books to return
+     * @param after the opaque cursor of the previous page, or null for the first page
+     * @return the page of books and the cursor for the next one
+     * @throws BadRequestException if a parameter is out of range or the cursor is malformed
+     */
+
+    BookPageDTO getBooksPage(BookQuery query, int limit, String after) throws BadRequestException;
+
+    /**
+     * Lists the books changed and deleted since a given time, for clients keeping a synced copy of the catalog.
+     *
+     * @param modifiedSince the ISO-8601 checkpoint returned by the previous sync
+     * @param limit         the maximum number of changed books to return
+     * @param after         the opaque cursor of the previous page of the same sync, or null for the first page
+     * @return the changed books, the deleted book IDs and the checkpoint to sync from next time
+     * @throws BadRequestException if modifiedSince is malformed or older than deletions are kept,
+     *                             or a parameter is out of range
+     */
+    BookSyncDTO getChangedBooks(String modifiedSince, int limit, String after) throws BadRequestException;
+
+    /**
+     * Searches books by title and author.
+     *
+     * @param query the words to search for, or the prefix in PREFIX mode
+     * @param mode  TEXT for a relevance-ranked text search, PREFIX for a case-insensitive prefix match
+     * @param page  the zero-based page number
+     * @param size  the page size
+     * @return the page of matching books
+     * @throws BadRequestException if the query is blank, the mode unknown or the page out of range
+     */
+    BookSearchPageDTO searchBooks(String query, String mode, int page, int size) throws BadRequestException;
+
+    /**
+     * Completes a title or author prefix from memory, without querying the database.
+     *
+     * @param prefix the text typed so far
+     * @param limit  the maximum number of completions
+     * @return the completions, most common first, empty if the prefix is blank
+     * @throws BadRequestException if the limit is out of range
+     */
+    List<String> autocomplete(String prefix, int limit) throws BadRequestException;
+
+    /**
+     * Streams every book without materialising the catalog in memory.
+     * The returned stream holds an open database cursor and must be closed by the caller.
+     *
+     * @return a stream over all books
+     */
+    Stream<BookDTO> streamAllBooks();
 
     /**
      * Updates an existing book.
@@ -43,6 +123,42 @@ public interface BookServiceInterface {
 
     BookDTO updateBook(BookDTO bookDTO) throws BadRequestException;
 
+    /**
+     * Updates an existing book, provided it still has the expected version.
+     *
+     * @param bookDTO         the book object to update
+     * @param expectedVersion the version the client last read, or null to update any version
+     * @return the updated book object
+     * @throws BadRequestException if the update request is invalid or empty
+     */
+    BookDTO updateBook(BookDTO bookDTO, Long expectedVersion) throws BadRequestException;
+
+
+    /**
+     * Accepts a validated book for creation by the write-behind queue and returns before it is written.
+     *
+     * @param bookDTO the book object to create
+     * @return the queued write, with the ID the book will have
+     */
+    BookWriteDTO createBookAsync(BookDTO bookDTO);
+
+    /**
+     * Accepts an update of an existing book for the write-behind queue and returns before it is written.
+     * The update is validated now; whether the book exists is only known once it is written.
+     *
+     * @param bookDTO the book object to update
+     * @return the queued write
+     * @throws BadRequestException if the update request is empty
+     */
+    BookWriteDTO updateBookAsync(BookDTO bookDTO) throws BadRequestException;
+
+    /**
+     * Retrieves the status of a write accepted by {@link #createBookAsync} or {@link #updateBookAsync}.
+     *
+     * @param trackingId the tracking ID returned when the write was accepted
+     * @return the write
+     */
+    BookWriteDTO findWrite(String trackingId);
 
     /**
      * Deletes a book by its ID.
@@ -52,5 +168,23 @@ public interface BookServiceInterface {
      */
     boolean deleteBook(String id);
 
+    /**
+     * Deletes a book by its ID, provided it still has the expected version.
+     *
+     * @param id              the ID of the book to delete
+     * @param expectedVersion the version the client last read, or null to delete any version
+     * @return true if the book was deleted successfully
+     */
+    boolean deleteBook(String id, Long expectedVersion);
+
+    /**
+     * Deletes several books by their IDs in one operation.
+     *
+     * @param ids the IDs of the books to delete
+     * @return the number of books deleted
+     * @throws BadRequestException if the list is empty or too large
+     */
+    long deleteBooks(List<String> ids) throws BadRequestException;
+
 
 }
@@ -0,0 +1,381 @@
+package com.usmobile.demo.service;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import com.usmobile.demo.config.CacheConfig;
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.core.BookWriteDTO;
+import com.usmobile.demo.core.BookWriteStatus;
+import com.usmobile.demo.entity.BookDAO;
+import com.usmobile.demo.exception.ErrorMessageEnum;
+import com.usmobile.demo.exception.TooManyRequestsException;
+import com.usmobile.demo.mapper.BookMapper;
+import com.usmobile.demo.repository.BookRepositoryInterface;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind queue for book creates and updates accepted with 202. Requests only validate and enqueue;
+ * a single flusher thread drains the queue into unordered bulk writes once {@code batchSize} writes are pending
+ * or {@code flushInterval} has passed, so one database round-trip carries many requests.
+ * <p>
+ * The queue is a lock-free linked queue bounded by a counter: a write that finds it full is refused with
+ * {@link TooManyRequestsException} instead of blocking the request thread. Each update is written on its own, so a
+ * rejected update does not fail the others; updates of the same book within one flush go to successive bulk writes
+ * and are applied in the order they were accepted. The outcome of every write is kept in the
+ * {@link CacheConfig#BOOK_WRITES} cache under its tracking ID until it expires.
+ * <p>
+ * Queued writes live in memory only: writes still pending when the process dies are lost, and a failed flush
+ * is reported as FAILED rather than retried.
+ */
+@Component
+public class BookWriteBehindQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookWriteBehindQueue.class);
+
+    /**
+     * A write waiting for the flusher.
+     *
+     * @param trackingId the ID under which the outcome is reported
+     * @param bookId     the ID of the book to create or update
+     * @param book       the book to create, null for an update
+     * @param update     the validated update, null for a create
+     */
+    record PendingWrite(String trackingId, String bookId, BookDTO book, Update update) {
+    }
+
+    private final BookRepositoryInterface bookRepository;
+    private final BookMapper bookMapper;
+    private final Cache bookCache;
+    private final Cache isbnCache;
+    private final Cache writes;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final ConcurrentLinkedQueue<PendingWrite> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Thread flusher;
+    private volatile boolean running;
+
+    private final Timer flushTimer;
+    private final Counter rejected;
+
+    /**
+     * Constructs a new BookWriteBehindQueue instance with the required dependencies.
+     *
+     * @param bookRepository the book repository interface
+     * @param bookMapper     the book mapper instance
+     * @param cacheManager   the cache manager holding the book caches and the write statuses
+     * @param eventPublisher the publisher of book change events
+     * @param meterRegistry  the registry of the queue depth, flush latency and rejection meters
+     * @param capacity       the maximum number of pending writes
+     * @param batchSize      the number of pending writes that triggers a flush, and the most written per flush
+     * @param flushInterval  the longest a write waits for its batch to fill up
+     */
+    public BookWriteBehindQueue(BookRepositoryInterface bookRepository, BookMapper bookMapper,
+                                CacheManager cacheManager, ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry,
+                                @Value("${books.write-behind.capacity:10000}") int capacity,
+                                @Value("${books.write-behind.batch-size:500}") int batchSize,
+                                @Value("${books.write-behind.flush-interval:200ms}") Duration flushInterval) {
+        this.bookRepository = bookRepository;
+        this.bookMapper = bookMapper;
+        this.bookCache = cacheManager.getCache(CacheConfig.BOOKS_BY_ID);
+        this.isbnCache = cacheManager.getCache(CacheConfig.BOOK_IDS_BY_ISBN);
+        this.writes = cacheManager.getCache(CacheConfig.BOOK_WRITES);
+        this.eventPublisher = eventPublisher;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.flusher = Thread.ofPlatform().name("book-write-behind").daemon().unstarted(this::run);
+
+        Gauge.builder("books.write_behind.queue.depth", depth, AtomicInteger::get)
+                .description("Writes accepted and not yet flushed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("books.write_behind.flush")
+                .description("Time to write one batch of queued writes")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("books.write_behind.rejected")
+                .description("Writes refused because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the flusher thread.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher.start();
+    }
+
+    /**
+     * Stops the flusher once it has written everything still queued.
+     *
+     * @throws InterruptedException if interrupted while waiting for the flusher
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join();
+    }
+
+    /**
+     * Queues a validated book for creation. Its ID is assigned now, so it can be returned before the write.
+     *
+     * @param book the book to create
+     * @return the queued write
+     * @throws TooManyRequestsException if the queue is full
+     */
+    public BookWriteDTO enqueueCreate(BookDTO book) {
+        book.setId(new ObjectId().toHexString());
+        return enqueue(new PendingWrite(new ObjectId().toHexString(), book.getId(), book, null));
+    }
+
+    /**
+     * Queues a validated, non-empty update of a book.
+     *
+     * @param bookId the ID of the book to update
+     * @param update the update built from the request
+     * @return the queued write
+     * @throws TooManyRequestsException if the queue is full
+     */
+    public BookWriteDTO enqueueUpdate(String bookId, Update update) {
+        return enqueue(new PendingWrite(new ObjectId().toHexString(), bookId, null, update));
+    }
+
+    /**
+     * Returns the current status of a write.
+     *
+     * @param trackingId the tracking ID returned when the write was accepted
+     * @return the write, or null if it is unknown or its status has expired
+     */
+    public BookWriteDTO find(String trackingId) {
+        return writes.get(trackingId, BookWriteDTO.class);
+    }
+
+    /**
+     * Returns the number of writes accepted and not yet flushed.
+     *
+     * @return the queue depth
+     */
+    public int depth() {
+        return depth.get();
+    }
+
+    private BookWriteDTO enqueue(PendingWrite write) {
+        int pending = depth.incrementAndGet();
+        if (pending > capacity) {
+            depth.decrementAndGet();
+            rejected.increment();
+            logger.warn(ErrorMessageEnum.WRITE_QUEUE_FULL.getMessage());
+            throw new TooManyRequestsException(ErrorMessageEnum.WRITE_QUEUE_FULL.getMessage());
+        }
+
+        BookWriteDTO queued = new BookWriteDTO(write.trackingId(), write.bookId(), BookWriteStatus.QUEUED, null);
+        writes.put(write.trackingId(), queued);
+        queue.offer(write);
+        if (pending >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+        return queued;
+    }
+
+    /**
+     * Flusher loop: waits until a batch is full or the flush interval has passed, then writes one batch.
+     * After {@link #stop()} it keeps flushing without waiting until the queue is empty.
+     */
+    private void run() {
+        while (running || depth.get() > 0) {
+            if (running && depth.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Drains and writes at most one batch of pending writes.
+     */
+    void flush() {
+        List<PendingWrite> batch = new ArrayList<>(Math.min(batchSize, Math.max(depth.get(), 1)));
+        PendingWrite write;
+        while (batch.size() < batchSize && (write = queue.poll()) != null) {
+            batch.add(write);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        depth.addAndGet(-batch.size());
+
+        List<PendingWrite> creates = new ArrayList<>(batch.size());
+        List<PendingWrite> updates = new ArrayList<>();
+        for (PendingWrite pending : batch) {
+            (pending.book() != null ? creates : updates).add(pending);
+        }
+        // creates first, so a book created and updated in the same batch exists when its update is applied
+        try {
+            flushTimer.record(() -> {
+                writeCreates(creates);
+                writeUpdates(updates);
+            });
+        } catch (RuntimeException e) {
+            // a failing mapper or event listener must not end the flusher thread, or the queue would only fill up
+            batch.forEach(pending -> bookCache.evict(pending.bookId()));
+            failAll(batch, e);
+        }
+    }
+
+    private void writeCreates(List<PendingWrite> creates) {
+        if (creates.isEmpty()) {
+            return;
+        }
+        List<BookDAO> books = new ArrayList<>(creates.size());
+        for (PendingWrite create : creates) {
+            books.add(bookMapper.toDAO(create.book()));
+        }
+
+        List<BulkWriteError> errors;
+        try {
+            errors = bookRepository.insertUnordered(books);
+        } catch (Exception e) {
+            failAll(creates, e);
+            return;
+        }
+
+        BulkWriteError[] errorAt = new BulkWriteError[creates.size()];
+        for (BulkWriteError error : errors) {
+            errorAt[error.getIndex()] = error;
+        }
+        for (int i = 0; i < creates.size(); i++) {
+            PendingWrite create = creates.get(i);
+            BookDAO book = books.get(i);
+            if (errorAt[i] != null) {
+                complete(create, failure(errorAt[i]), errorMessage(errorAt[i], book.getIsbn()));
+                continue;
+            }
+            complete(create, BookWriteStatus.APPLIED, null);
+            BookDTO created = bookMapper.toCore(book);
+            isbnCache.put(created.getIsbn(), created.getId());
+            eventPublisher.publishEvent(BookChangedEvent.created(created));
+        }
+    }
+
+    private void writeUpdates(List<PendingWrite> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        // the n-th update of each book goes to the n-th bulk write, so the order within one bulk write does not matter
+        List<List<PendingWrite>> rounds = new ArrayList<>();
+        Map<String, Integer> updatesPerBook = new LinkedHashMap<>();
+        for (PendingWrite pending : updates) {
+            int round = updatesPerBook.merge(pending.bookId(), 1, Integer::sum) - 1;
+            if (round == rounds.size()) {
+                rounds.add(new ArrayList<>());
+            }
+            rounds.get(round).add(pending);
+        }
+
+        Map<String, BookDAO> stored = new HashMap<>();
+        Map<String, BulkWriteError> errors = new HashMap<>();
+        try {
+            for (List<PendingWrite> round : rounds) {
+                List<Pair<String, Update>> bulk = new ArrayList<>(round.size());
+                for (PendingWrite pending : round) {
+                    bulk.add(Pair.of(pending.bookId(), pending.update()));
+                }
+                for (BulkWriteError error : bookRepository.updateUnordered(bulk)) {
+                    errors.put(round.get(error.getIndex()).trackingId(), error);
+                }
+            }
+            // read back the updated books, which also tells which IDs did not exist
+            for (BookDAO book : bookRepository.findAllById(updatesPerBook.keySet())) {
+                stored.put(book.getId(), book);
+            }
+        } catch (Exception e) {
+            updatesPerBook.keySet().forEach(bookCache::evict);
+            failAll(updates, e);
+            return;
+        }
+
+        Set<String> applied = new HashSet<>();
+        for (PendingWrite pending : updates) {
+            BulkWriteError error = errors.get(pending.trackingId());
+            if (error != null) {
+                String isbn = pending.update().getUpdateObject().get("$set", Document.class).getString("isbn");
+                complete(pending, failure(error), errorMessage(error, isbn));
+            } else if (!stored.containsKey(pending.bookId())) {
+                complete(pending, BookWriteStatus.NOT_FOUND, ErrorMessageEnum.BOOK_NOT_FOUND.getMessage(pending.bookId()));
+            } else {
+                complete(pending, BookWriteStatus.APPLIED, null);
+                applied.add(pending.bookId());
+            }
+        }
+        for (String id : applied) {
+            BookDTO updated = bookMapper.toCore(stored.get(id));
+            bookCache.put(updated.getId(), updated);
+            isbnCache.put(updated.getIsbn(), updated.getId());
+            eventPublisher.publishEvent(BookChangedEvent.updated(updated));
+        }
+    }
+
+    /**
+     * Reports the writes not reported yet as failed. Writes already applied keep their status.
+     */
+    private void failAll(List<PendingWrite> failed, Exception e) {
+        logger.error(ErrorMessageEnum.UNEXPECTED_ERROR_OCCURRED.getMessage("writing queued books"), e);
+        String message = ErrorMessageEnum.UNEXPECTED_ERROR_OCCURRED.getMessage("writing queued books");
+        for (PendingWrite pending : failed) {
+            BookWriteDTO current = find(pending.trackingId());
+            if (current == null || current.getStatus() == BookWriteStatus.QUEUED) {
+                complete(pending, BookWriteStatus.FAILED, message);
+            }
+        }
+    }
+
+    private void complete(PendingWrite write, BookWriteStatus status, String message) {
+        writes.put(write.trackingId(), new BookWriteDTO(write.trackingId(), write.bookId(), status, message));
+    }
+
+    private static BookWriteStatus failure(BulkWriteError error) {
+        return ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY
+                ? BookWriteStatus.DUPLICATE_ISBN
+                : BookWriteStatus.FAILED;
+    }
+
+    private static String errorMessage(BulkWriteError error, String isbn) {
+        return ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY
+                ? ErrorMessageEnum.ISBN_ALREADY_EXISTS.getMessage(isbn)
+                : ErrorMessageEnum.BATCH_ITEM_WRITE_ERROR.getMessage(error.getMessage());
+    }
+}
@@ -0,0 +1,264 @@
+package com.usmobile.demo.service;
+
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.core.BookPageDTO;
+import com.usmobile.demo.core.BookQuery;
+import com.usmobile.demo.core.BookSearchMode;
+import com.usmobile.demo.core.BookSearchPageDTO;
+import com.usmobile.demo.entity.BookDAO;
+import com.usmobile.demo.exception.DuplicateIsbnException;
+import com.usmobile.demo.exception.EntityNotFoundException;
+import com.usmobile.demo.exception.ErrorMessageEnum;
+import com.usmobile.demo.exception.ServiceException;
+import com.usmobile.demo.mapper.BookMapper;
+import com.usmobile.demo.repository.BookPageRequest;
+import com.usmobile.demo.repository.ReactiveBookRepositoryInterface;
+import com.usmobile.demo.util.BookHelper;
+import com.usmobile.demo.util.BookPatch;
+import org.apache.coyote.BadRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reactive service implementation for managing books, only active when the application runs on WebFlux.
+ * Mirrors {@link BookServiceImpl} over the reactive repository; the in-process caches are not used in this mode.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookServiceImpl implements ReactiveBookServiceInterface {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveBookServiceImpl.class);
+
+    private final ReactiveBookRepositoryInterface bookRepository;
+    private final BookMapper bookMapper;
+    private final BookAutocompleteIndex autocompleteIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchMaxSize;
+
+    /**
+     * Constructs a new ReactiveBookServiceImpl instance with the required dependencies.
+     *
+     * @param bookRepository the reactive book repository interface
+     * @param bookMapper     the book mapper instance
+     * @param autocompleteIndex the in-memory title and author completions
+     * @param eventPublisher the publisher of book change events
+     * @param batchMaxSize   the maximum number of books accepted in one bulk request
+     */
+    public ReactiveBookServiceImpl(ReactiveBookRepositoryInterface bookRepository, BookMapper bookMapper,
+                                   BookAutocompleteIndex autocompleteIndex, ApplicationEventPublisher eventPublisher,
+                                   @Value("${books.batch.max-size:10000}") int batchMaxSize) {
+        this.bookRepository = bookRepository;
+        this.bookMapper = bookMapper;
+        this.autocompleteIndex = autocompleteIndex;
+        this.eventPublisher = eventPublisher;
+        this.batchMaxSize = batchMaxSize;
+    }
+
+    @Override
+    public Mono<BookDTO> createBook(BookDTO newBook) {
+        logger.info("Creating new book with ISBN {}", newBook.getIsbn());
+        return bookRepository.save(bookMapper.toDAO(newBook))
+                .doOnNext(savedBook -> logger.info("Book created successfully with ID {}", savedBook.getId()))
+                .map(bookMapper::toCore)
+                .doOnNext(createdBook -> eventPublisher.publishEvent(BookChangedEvent.created(createdBook)))
+                .onErrorMap(e -> {
+                    if (e instanceof DataIntegrityViolationException) {
+                        logger.error(ErrorMessageEnum.ISBN_ALREADY_EXISTS.getMessage(newBook.getIsbn()), e);
+                        return new DuplicateIsbnException(ErrorMessageEnum.ISBN_ALREADY_EXISTS.getMessage(newBook.getIsbn()));
+                    }
+                    logger.error(ErrorMessageEnum.UNEXPECTED_ERROR_OCCURRED.getMessage("creating book"), e);
+                    return new ServiceException(ErrorMessageEnum.UNEXPECTED_ERROR_OCCURRED.getMessage("creating book"), e);
+                });
+    }
+
+    @Override
+    public Mono<BookDTO> findBookById(String id) {
+        logger.info("Finding book with ID {}", id);
+        return bookRepository.findById(id)
+                .map(bookMapper::toCore)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException(ErrorMessageEnum.BOOK_NOT_FOUND.getMessage(id))));
+    }
+
+    @Override
+    public Mono<BookDTO> findBookById(String id, String fields) {
+        Set<String> selected;
+        try {
+            selected = BookHelper.parseFields(fields);
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+        if (selected == null) {
+            return findBookById(id);
+        }
+
+        logger.info("Finding fields {} of book with ID {}", selected, id);
+        return bookRepository.findProjectedById(id, selected)
+                .map(bookMapper::toCore)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException(ErrorMessageEnum.BOOK_NOT_FOUND.getMessage(id))));
+    }
+
+    @Override
+    public Mono<BookDTO> findBookByIsbn(String isbn) {
+        logger.info("Finding book with ISBN {}", isbn);
+        return bookRepository.findByIsbn(isbn)
+                .map(bookMapper::toCore)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException(ErrorMessageEnum.BOOK_WITH_ISBN_NOT_FOUND.getMessage(isbn))));
+    }
+
+    @Override
+    public Mono<BookPageDTO> getBooksPage(BookQuery query, int limit, String after) {
+        BookPageRequest request;
+        try {
+            request = BookServiceImpl.toPageRequest(query, limit, after);
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+
+        logger.info("Retrieving books page with limit {} sorted by {} after cursor {}", limit, query.getSort(), after);
+        return bookRepository.findPage(request).collectList().map(page -> {
+            String nextCursor = null;
+            if (page.size() > limit) {
+                page = page.subList(0, limit);
+                nextCursor = BookServiceImpl.nextCursor(request, page.get(limit - 1));
+            }
+            return new BookPageDTO(page.stream()
+                    .map(bookMapper::toCore)
+                    .map(book -> BookHelper.project(book, request.fields()))
+                    .toList(), nextCursor);
+        });
+    }
+
+    @Override
+    public Mono<BookSearchPageDTO> searchBooks(String query, String mode, int page, int size) {
+        BookSearchMode searchMode;
+        try {
+            searchMode = BookServiceImpl.validateSearch(query, mode, page, size);
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+
+        logger.info("Searching books for '{}' in {} mode, page {} of size {}", query, searchMode, page, size);
+        long skip = (long) page * size;
+        Flux<BookDAO> books = searchMode == BookSearchMode.TEXT
+                ? bookRepository.searchText(query, skip, size + 1)
+                : bookRepository.searchPrefix(query, skip, size + 1);
+
+        return books.map(bookMapper::toCore)
+                .collectList()
+                .map(found -> new BookSearchPageDTO(
+                        found.size() > size ? found.subList(0, size) : found, page, size, found.size() > size));
+    }
+
+    @Override
+    public Mono<List<String>> autocomplete(String prefix, int limit) {
+        if (limit < 1 || limit > BookAutocompleteIndex.MAX_LIMIT) {
+            return Mono.error(new BadRequestException(ErrorMessageEnum.INVALID_PAGE_LIMIT.getMessage(BookAutocompleteIndex.MAX_LIMIT)));
+        }
+        return Mono.fromSupplier(() -> autocompleteIndex.complete(prefix, limit));
+    }
+
+    @Override
+    public Flux<BookDTO> streamAllBooks() {
+        logger.info("Streaming all books");
+        return bookRepository.streamAllBy()
+                .map(bookMapper::toCore);
+    }
+
+    @Override
+    public Mono<BookDTO> updateBook(BookDTO bookDTO) {
+        BookPatch patch = BookPatch.of(bookDTO);
+        if (patch.isEmpty()) {
+            logger.warn(ErrorMessageEnum.EMPTY_UPDATE_REQUEST.getMessage());
+            return Mono.error(new BadRequestException(ErrorMessageEnum.EMPTY_UPDATE_REQUEST.getMessage()));
+        }
+        return Mono.fromCallable(() -> BookHelper.toValidatedUpdate(patch))
+                .flatMap(update -> {
+                    logger.info("Updating book with ID {}", bookDTO.getId());
+                    return applyUpdate(bookDTO, update);
+                });
+    }
+
+    /**
+     * Applies a validated, non-empty update with a single findAndModify.
+     *
+     * @param bookDTO the book to update
+     * @param update  the $set built from its non-null fields
+     * @return the updated book
+     */
+    private Mono<BookDTO> applyUpdate(BookDTO bookDTO, Update update) {
+        return bookRepository.updateFields(bookDTO.getId(), update)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException(ErrorMessageEnum.BOOK_NOT_FOUND.getMessage(bookDTO.getId()))))
+                .doOnNext(updated -> logger.info("Book updated successfully with ID {}", updated.getId()))
+                .map(bookMapper::toCore)
+                .doOnNext(updatedBook -> eventPublisher.publishEvent(BookChangedEvent.updated(updatedBook)))
+                .onErrorMap(DataIntegrityViolationException.class, e -> {
+                    logger.error(ErrorMessageEnum.ISBN_ALREADY_EXISTS.getMessage(bookDTO.getIsbn()), e);
+                    return new DuplicateIsbnException(ErrorMessageEnum.ISBN_ALREADY_EXISTS.getMessage(bookDTO.getIsbn()));
+                });
+    }
+
+    @Override
+    public Mono<Boolean> deleteBook(String id) {
+        logger.info("Deleting book with ID {}", id);
+        return bookRepository.removeById(id)
+                .onErrorMap(e -> {
+                    logger.error(ErrorMessageEnum.BOOK_DELETION_ERROR.getMessage(id), e);
+                    return new ServiceException(ErrorMessageEnum.BOOK_DELETION_ERROR.getMessage(id), e);
+                })
+                .flatMap(deleted -> {
+                    if (deleted == 0) {
+                        return Mono.error(new EntityNotFoundException(ErrorMessageEnum.BOOK_NOT_FOUND.getMessage(id)));
+                    }
+                    logger.info("Book deleted successfully with ID {}", id);
+                    return recordDeletions(List.of(id))
+                            .doOnSuccess(done -> eventPublisher.publishEvent(BookChangedEvent.deleted(id)))
+                            .thenReturn(true);
+                });
+    }
+
+    @Override
+    public Mono<Long> deleteBooks(List<String> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > batchMaxSize) {
+            return Mono.error(new BadRequestException(ErrorMessageEnum.INVALID_BATCH_SIZE.getMessage(batchMaxSize)));
+        }
+
+        logger.info("Deleting {} books", ids.size());
+        return bookRepository.removeByIds(ids)
+                .onErrorMap(e -> {
+                    logger.error(ErrorMessageEnum.BOOKS_DELETION_ERROR.getMessage(ids.size()), e);
+                    return new ServiceException(ErrorMessageEnum.BOOKS_DELETION_ERROR.getMessage(ids.size()), e);
+                })
+                .doOnNext(deleted -> logger.info("{} books deleted", deleted))
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.just(deleted)
+                        : recordDeletions(ids)
+                                .doOnSuccess(done -> ids.forEach(id -> eventPublisher.publishEvent(BookChangedEvent.deleted(id))))
+                                .thenReturn(deleted));
+    }
+
+    /**
+     * Writes the tombstones of books that are already deleted, logging a failure instead of failing the request,
+     * since the books are gone either way and their deleted events must still be published.
+     *
+     * @param ids the IDs of the deleted books
+     * @return completes once the tombstones are written or their failure is logged
+     */
+    private Mono<Void> recordDeletions(List<String> ids) {
+        return bookRepository.recordDeletions(ids)
+                .onErrorResume(e -> {
+                    logger.error("Error recording the deletion of {} books", ids.size(), e);
+                    return Mono.empty();
+                });
+    }
+}
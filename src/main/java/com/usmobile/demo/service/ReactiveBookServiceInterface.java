@@ -0,0 +1,113 @@
+package com.usmobile.demo.service;
+
+
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.core.BookPageDTO;
+import com.usmobile.demo.core.BookQuery;
+import com.usmobile.demo.core.BookSearchPageDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link BookServiceInterface}, used by the reactive execution mode.
+ * Errors are signalled with the same exceptions as the blocking service.
+ */
+public interface ReactiveBookServiceInterface {
+
+    /**
+     * Creates a new book.
+     *
+     * @param bookDTO the book object to create
+     * @return the created book DTO
+     */
+    Mono<BookDTO> createBook(BookDTO bookDTO);
+
+    /**
+     * Retrieves a book by its ID.
+     *
+     * @param id the ID of the book to retrieve
+     * @return BookDTO, or an EntityNotFoundException error
+     */
+    Mono<BookDTO> findBookById(String id);
+
+    /**
+     * Retrieves a book by its ISBN.
+     *
+     * @param isbn the ISBN of the book to retrieve
+     * @return BookDTO, or an EntityNotFoundException error
+     */
+    Mono<BookDTO> findBookByIsbn(String isbn);
+
+    /**
+     * Finds a book by ID, keeping only the requested properties.
+     *
+     * @param id     the book ID
+     * @param fields the comma-separated properties to return, or null for all
+     * @return the projected book, or a BadRequestException or EntityNotFoundException error
+     */
+    Mono<BookDTO> findBookById(String id, String fields);
+
+    /**
+     * Retrieves one keyset page of a filtered, sorted book listing.
+     *
+     * @param query the filters and sort key
+     * @param limit the maximum number of books to return
+     * @param after the opaque cursor of the previous page, or null for the first page
+     * @return the page of books, or a BadRequestException error if a parameter or the cursor is invalid
+     */
+    Mono<BookPageDTO> getBooksPage(BookQuery query, int limit, String after);
+
+    /**
+     * Searches books by title and author.
+     *
+     * @param query the words to search for, or the prefix in PREFIX mode
+     * @param mode  TEXT for a relevance-ranked text search, PREFIX for a case-insensitive prefix match
+     * @param page  the zero-based page number
+     * @param size  the page size
+     * @return the page of matching books, or a BadRequestException error if the parameters are invalid
+     */
+    Mono<BookSearchPageDTO> searchBooks(String query, String mode, int page, int size);
+
+    /**
+     * Completes a title or author prefix from memory, without querying the database.
+     *
+     * @param prefix the text typed so far
+     * @param limit  the maximum number of completions
+     * @return the completions, most common first, or a BadRequestException error if the limit is out of range
+     */
+    Mono<List<String>> autocomplete(String prefix, int limit);
+
+    /**
+     * Streams every book, honouring downstream demand.
+     *
+     * @return all books
+     */
+    Flux<BookDTO> streamAllBooks();
+
+    /**
+     * Updates an existing book with the non-null fields of the given one.
+     *
+     * @param bookDTO the book object to update
+     * @return the updated book object, or a BadRequestException error if the update request is empty
+     */
+    Mono<BookDTO> updateBook(BookDTO bookDTO);
+
+    /**
+     * Deletes a book by its ID.
+     *
+     * @param id the ID of the book to delete
+     * @return true, or an EntityNotFoundException error
+     */
+    Mono<Boolean> deleteBook(String id);
+
+    /**
+     * Deletes several books by their IDs in one operation.
+     *
+     * @param ids the IDs of the books to delete
+     * @return the number of books deleted, or a BadRequestException error if the list is empty or too large
+     */
+    Mono<Long> deleteBooks(List<String> ids);
+
+}
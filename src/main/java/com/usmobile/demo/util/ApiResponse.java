@@ -2,17 +2,20 @@ package com.usmobile.demo.util;
 
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 
 
 /**
  * A generic API response class that encapsulates the response status, message, data, and error code.
+ * The no-argument constructor lets clients decode responses, in JSON or CBOR, with Jackson.
  *
  * @param <T> the type of data in the response
  */
 @Getter
 @Setter
+@NoArgsConstructor
 public class ApiResponse<T> {
     /**
      * The HTTP status code of the response.
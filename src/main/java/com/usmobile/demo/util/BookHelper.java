@@ -1,13 +1,19 @@
 package com.usmobile.demo.util;
 
 import com.usmobile.demo.core.BookDTO;
-import com.usmobile.demo.entity.BookDAO;
+import com.usmobile.demo.exception.ErrorMessageEnum;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Validator;
+import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashSet;
+import java.util.Locale;
 import java.util.Set;
 
 /**
@@ -16,6 +22,11 @@ import java.util.Set;
 @Component
 public class BookHelper {
 
+    /**
+     * The book properties a client can select with fields=.
+     */
+    public static final Set<String> PROJECTABLE_FIELDS = Set.of("id", "title", "author", "isbn", "publishedDate");
+
     /**
      * The validator used to validate book fields.
      */
@@ -32,28 +43,133 @@ public class BookHelper {
     }
 
     /**
-     * Merges non-null fields from the given BookDTO into the target BookDAO, validating each field before merging.
+     * Builds a $set update for the non-null fields of the given BookDTO, validating each field before adding it.
+     * Fields left null are not touched by the update.
+     *
+     * @param source the BookDTO holding the fields to update
+     * @return the update setting every non-null field
+     */
+    public static Update toValidatedUpdate(BookDTO source) {
+        return toValidatedUpdate(BookPatch.of(source));
+    }
+
+    /**
+     * Builds a $set update for the fields of the given patch, validating each field before adding it.
+     * Fields not in the patch are neither validated nor touched by the update.
      *
-     * @param source the BookDTO to merge from
-     * @param target the BookDAO to merge into
+     * @param patch the fields to update and their new values
+     * @return the update setting every field of the patch
      */
-    public static void mergeNonNullWithValidation(BookDTO source, BookDAO target) {
-        if (source.getTitle() != null) {
+    public static Update toValidatedUpdate(BookPatch patch) {
+        BookDTO source = patch.source();
+        Update update = new Update();
+        if (patch.has(BookPatch.TITLE)) {
             validateField(source, "title");
-            target.setTitle(source.getTitle());
+            update.set("title", source.getTitle());
+            update.set("titleKey", toSearchKey(source.getTitle()));
         }
-        if (source.getAuthor() != null) {
+        if (patch.has(BookPatch.AUTHOR)) {
             validateField(source, "author");
-            target.setAuthor(source.getAuthor());
+            update.set("author", source.getAuthor());
+            update.set("authorKey", toSearchKey(source.getAuthor()));
         }
-        if (source.getIsbn() != null) {
+        if (patch.has(BookPatch.ISBN)) {
             validateField(source, "isbn");
-            target.setIsbn(source.getIsbn());
+            update.set("isbn", source.getIsbn());
         }
-        if (source.getPublishedDate() != null) {
+        if (patch.has(BookPatch.PUBLISHED_DATE)) {
             validateField(source, "publishedDate");
-            target.setPublishedDate(source.getPublishedDate());
+            update.set("publishedDate", source.getPublishedDate());
+        }
+        return update;
+    }
+
+    /**
+     * Normalizes a title or author into the key used by prefix search, so a case-insensitive prefix
+     * becomes a plain anchored range on an ordinary index.
+     *
+     * @param value the title or author
+     * @return the trimmed, lower-cased value, or null if the value is null
+     */
+    public static String toSearchKey(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the current time at the millisecond precision MongoDB stores, so the timestamps of a saved book
+     * are the ones it is read back with.
+     *
+     * @return the current time, truncated to milliseconds
+     */
+    public static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    /**
+     * Parses a fields= parameter into the set of book properties to return. The ID is always included.
+     *
+     * @param fields the comma-separated property names, or null
+     * @return the selected properties, or null if every property is to be returned
+     * @throws BadRequestException if a name is not a book property
+     */
+    public static Set<String> parseFields(String fields) throws BadRequestException {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> parsed = new LinkedHashSet<>();
+        parsed.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!PROJECTABLE_FIELDS.contains(name)) {
+                throw new BadRequestException(ErrorMessageEnum.INVALID_FIELDS.getMessage(name));
+            }
+            parsed.add(name);
+        }
+        return parsed;
+    }
+
+    /**
+     * Copies the selected properties of a book into a new BookDTO, leaving the others null.
+     * The ID and version are always copied. The source is not modified, so cached books can be projected safely.
+     *
+     * @param source the book
+     * @param fields the properties to copy, or null for all
+     * @return the projected book, or the source itself when every property is selected
+     */
+    public static BookDTO project(BookDTO source, Set<String> fields) {
+        if (fields == null || source == null) {
+            return source;
+        }
+        BookDTO projected = new BookDTO();
+        projected.setId(source.getId());
+        projected.setVersion(source.getVersion());
+        if (fields.contains("title")) {
+            projected.setTitle(source.getTitle());
+        }
+        if (fields.contains("author")) {
+            projected.setAuthor(source.getAuthor());
+        }
+        if (fields.contains("isbn")) {
+            projected.setIsbn(source.getIsbn());
+        }
+        if (fields.contains("publishedDate")) {
+            projected.setPublishedDate(source.getPublishedDate());
         }
+        return projected;
+    }
+
+    /**
+     * Validates all constraints of the given book and returns the first violation message.
+     *
+     * @param book the book to validate
+     * @return the first violation message, or null if the book is valid
+     */
+    public static String firstViolationMessage(BookDTO book) {
+        Set<ConstraintViolation<BookDTO>> violations = validator.validate(book);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
     }
 
     /**
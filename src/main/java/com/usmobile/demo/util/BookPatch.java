@@ -0,0 +1,57 @@
+package com.usmobile.demo.util;
+
+import com.usmobile.demo.core.BookDTO;
+
+/**
+ * Describes which fields a partial update carries, as a bitmask computed once per request.
+ * The same mask decides whether the update is empty, which fields are validated and which are written,
+ * so the request body is inspected only once and nothing is allocated besides this record.
+ *
+ * @param source the BookDTO holding the new values
+ * @param fields the bits of the non-null updatable fields
+ */
+public record BookPatch(BookDTO source, int fields) {
+
+    public static final int TITLE = 1;
+    public static final int AUTHOR = 1 << 1;
+    public static final int ISBN = 1 << 2;
+    public static final int PUBLISHED_DATE = 1 << 3;
+
+    /**
+     * Builds the patch descriptor for the given update. The ID and version are not updatable and never counted.
+     *
+     * @param source the BookDTO holding the new values
+     * @return the descriptor of its non-null fields
+     */
+    public static BookPatch of(BookDTO source) {
+        int fields = 0;
+        if (source.getTitle() != null) {
+            fields |= TITLE;
+        }
+        if (source.getAuthor() != null) {
+            fields |= AUTHOR;
+        }
+        if (source.getIsbn() != null) {
+            fields |= ISBN;
+        }
+        if (source.getPublishedDate() != null) {
+            fields |= PUBLISHED_DATE;
+        }
+        return new BookPatch(source, fields);
+    }
+
+    /**
+     * @return true if the update carries no updatable field
+     */
+    public boolean isEmpty() {
+        return fields == 0;
+    }
+
+    /**
+     * @param field one of the field bits
+     * @return true if the update carries the field
+     */
+    public boolean has(int field) {
+        return (fields & field) != 0;
+    }
+}
@@ -0,0 +1,112 @@
+package com.usmobile.demo.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A utility class for the CBOR encoding of book payloads, offered to service-to-service callers that send
+ * {@code Accept: application/cbor}. The payloads are the same objects as in JSON, but dates are written as
+ * integers: a LocalDate as its epoch day and an Instant as epoch milliseconds.
+ */
+public final class CborHelper {
+
+    private CborHelper() {
+    }
+
+    /**
+     * Builds an object mapper writing and reading CBOR, with the modules Spring registers for JSON and
+     * the integer date encodings on top.
+     *
+     * @return a new CBOR object mapper
+     */
+    public static ObjectMapper newMapper() {
+        SimpleModule epochDays = new SimpleModule("EpochDayModule")
+                .addSerializer(LocalDate.class, new EpochDaySerializer())
+                .addDeserializer(LocalDate.class, new EpochDayDeserializer());
+        // registered after the JSR-310 module, so its LocalDate handlers take precedence over the
+        // yyyy-MM-dd format declared on BookDTO for JSON
+        return Jackson2ObjectMapperBuilder.cbor()
+                .modulesToInstall(epochDays)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .featuresToDisable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS,
+                        DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .build();
+    }
+
+    /**
+     * Tells whether an Accept header ranks CBOR above JSON. Wildcards count as JSON, so clients that do not ask
+     * for CBOR explicitly keep getting JSON.
+     *
+     * @param accept the Accept header value, or null
+     * @return true if application/cbor has a higher quality value than any type JSON satisfies
+     */
+    public static boolean prefersCbor(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        double cbor = 0;
+        double json = 0;
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                cbor = Math.max(cbor, mediaType.getQualityValue());
+            } else if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                json = Math.max(json, mediaType.getQualityValue());
+            }
+        }
+        return cbor > json;
+    }
+
+    /**
+     * Writes a LocalDate as the number of days since 1970-01-01.
+     */
+    static final class EpochDaySerializer extends StdSerializer<LocalDate> {
+
+        EpochDaySerializer() {
+            super(LocalDate.class);
+        }
+
+        @Override
+        public void serialize(LocalDate value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(value.toEpochDay());
+        }
+    }
+
+    /**
+     * Reads a LocalDate written by {@link EpochDaySerializer}.
+     */
+    static final class EpochDayDeserializer extends StdDeserializer<LocalDate> {
+
+        EpochDayDeserializer() {
+            super(LocalDate.class);
+        }
+
+        @Override
+        public LocalDate deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return LocalDate.ofEpochDay(parser.getLongValue());
+            }
+            return (LocalDate) context.handleUnexpectedToken(LocalDate.class, parser);
+        }
+    }
+}
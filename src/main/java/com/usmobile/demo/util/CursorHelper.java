@@ -0,0 +1,92 @@
+package com.usmobile.demo.util;
+
+import com.usmobile.demo.exception.ErrorMessageEnum;
+import org.apache.coyote.BadRequestException;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * A utility class for encoding and decoding the opaque keyset pagination cursors.
+ * Clients must treat cursors as opaque; the encoding may change without notice.
+ */
+public final class CursorHelper {
+
+    private static final String SEPARATOR = ":";
+
+    /**
+     * The position a keyset page resumes from.
+     *
+     * @param value  the sort key value of the last book of the previous page
+     * @param lastId the ID of the last book of the previous page
+     */
+    public record Position(String value, String lastId) {
+    }
+
+    private CursorHelper() {
+    }
+
+    /**
+     * Encodes the ID of the last book of a page into an opaque cursor.
+     *
+     * @param lastId the ID of the last book returned
+     * @return the opaque cursor
+     */
+    public static String encode(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Encodes the sort key value and ID of the last book of a page sorted by another key than the ID.
+     *
+     * @param sortKey the name of the sort key, checked again when the cursor is decoded
+     * @param value   the sort key value of the last book returned
+     * @param lastId  the ID of the last book returned
+     * @return the opaque cursor
+     */
+    public static String encode(String sortKey, String value, String lastId) {
+        return encode(sortKey + SEPARATOR + lastId + SEPARATOR + value);
+    }
+
+    /**
+     * Decodes an opaque cursor produced by {@link #encode(String, String, String)}.
+     *
+     * @param cursor  the opaque cursor
+     * @param sortKey the name of the sort key of the requested page, which must be the one of the cursor
+     * @return the sort key value and ID the next page starts after
+     * @throws BadRequestException if the cursor is malformed or was issued for another sort key
+     */
+    public static Position decode(String cursor, String sortKey) throws BadRequestException {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(SEPARATOR, 3);
+            if (parts.length != 3 || !parts[0].equals(sortKey) || !ObjectId.isValid(parts[1])) {
+                throw new BadRequestException(ErrorMessageEnum.INVALID_CURSOR.getMessage(cursor));
+            }
+            return new Position(parts[2], parts[1]);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(ErrorMessageEnum.INVALID_CURSOR.getMessage(cursor));
+        }
+    }
+
+    /**
+     * Decodes an opaque cursor back into the ID of the last book of the previous page.
+     *
+     * @param cursor the opaque cursor
+     * @return the book ID the next page starts after
+     * @throws BadRequestException if the cursor is malformed
+     */
+    public static String decode(String cursor) throws BadRequestException {
+        try {
+            String lastId = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!ObjectId.isValid(lastId)) {
+                throw new BadRequestException(ErrorMessageEnum.INVALID_CURSOR.getMessage(cursor));
+            }
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(ErrorMessageEnum.INVALID_CURSOR.getMessage(cursor));
+        }
+    }
+}
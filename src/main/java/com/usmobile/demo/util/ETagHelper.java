@@ -0,0 +1,86 @@
+package com.usmobile.demo.util;
+
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.core.BookPageDTO;
+import org.springframework.http.ETag;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A utility class building the entity tags of books and book pages, and reading versions back from If-Match.
+ * A book's strong tag is its version, suffixed with a hash of the selected fields when the book is projected,
+ * since every representation needs its own tag.
+ */
+public final class ETagHelper {
+
+    /**
+     * A version no book ever has, returned for If-Match values that cannot match any version.
+     */
+    public static final long NO_VERSION = -1L;
+
+    private ETagHelper() {
+    }
+
+    /**
+     * Builds the strong entity tag of a book.
+     *
+     * @param book   the book
+     * @param fields the selected properties, or null for the full book
+     * @return the quoted entity tag
+     */
+    public static String forBook(BookDTO book, Set<String> fields) {
+        long version = book.getVersion() == null ? 0L : book.getVersion();
+        if (fields == null) {
+            return "\"" + version + "\"";
+        }
+        return "\"" + version + "-" + Integer.toHexString(new TreeSet<>(fields).toString().hashCode()) + "\"";
+    }
+
+    /**
+     * Builds the weak entity tag of a page of books from the ID and version of each book, the next cursor
+     * and the selected fields. Any write to a book of the page changes the tag.
+     *
+     * @param page   the page of books
+     * @param fields the selected properties, or null for full books
+     * @return the weak entity tag
+     */
+    public static String forPage(BookPageDTO page, Set<String> fields) {
+        StringBuilder content = new StringBuilder();
+        for (BookDTO book : page.getBooks()) {
+            content.append(book.getId()).append(':').append(book.getVersion()).append(';');
+        }
+        content.append(page.getNextCursor()).append('|').append(fields == null ? "" : new TreeSet<>(fields));
+        return "W/\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Reads the version a conditional write expects from an If-Match header. Only a single strong entity tag
+     * issued by {@link #forBook(BookDTO, Set)} can match; weak, malformed or multiple tags never do.
+     *
+     * @param ifMatch the If-Match header value, or null
+     * @return the expected version, null if any version is accepted, or {@link #NO_VERSION} if none is
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        List<ETag> tags = ETag.parse(ifMatch);
+        if (tags.size() == 1 && tags.get(0).isWildcard()) {
+            return null;
+        }
+        if (tags.size() != 1 || tags.get(0).weak()) {
+            return NO_VERSION;
+        }
+        String tag = tags.get(0).tag();
+        int separator = tag.indexOf('-');
+        try {
+            return Long.parseLong(separator < 0 ? tag : tag.substring(0, separator));
+        } catch (NumberFormatException e) {
+            return NO_VERSION;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.usmobile.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MethodTimerTest {
+
+    interface Calls {
+        String call();
+
+        Stream<String> stream();
+
+        Mono<String> mono();
+    }
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testCallTimedByMethodAndException() {
+        Calls calls = timed(new Calls() {
+            public String call() { throw new IllegalStateException("boom"); }
+            public Stream<String> stream() { return Stream.empty(); }
+            public Mono<String> mono() { return Mono.just("ok"); }
+        });
+
+        assertThrows(IllegalStateException.class, calls::call);
+        assertThrows(IllegalStateException.class, calls::call);
+
+        // Assertions
+        assertEquals(2, timer("call", "IllegalStateException").count());
+        assertNull(registry.find("books.test").tags("method", "call", "exception", "none").timer());
+    }
+
+    @Test
+    void testStreamTimedUntilClosed() {
+        Calls calls = timed(new Calls() {
+            public String call() { return "ok"; }
+            public Stream<String> stream() { return Stream.of("a", "b"); }
+            public Mono<String> mono() { return Mono.just("ok"); }
+        });
+
+        try (Stream<String> stream = calls.stream()) {
+            assertEquals(2, stream.count());
+            assertNull(registry.find("books.test").tags("method", "stream").timer());
+        }
+
+        // Assertions
+        assertEquals(1, timer("stream", "none").count());
+    }
+
+    @Test
+    void testMonoTimedOnSubscription() {
+        Calls calls = timed(new Calls() {
+            public String call() { return "ok"; }
+            public Stream<String> stream() { return Stream.empty(); }
+            public Mono<String> mono() { return Mono.just("ok"); }
+        });
+
+        Mono<String> mono = calls.mono();
+        assertNull(registry.find("books.test").tags("method", "mono").timer());
+        mono.block();
+        mono.block();
+
+        // Assertions
+        assertEquals(2, timer("mono", "none").count());
+    }
+
+    private Timer timer(String method, String exception) {
+        return registry.get("books.test")
+                .tags("class", "Calls", "method", method, "exception", exception)
+                .timer();
+    }
+
+    private Calls timed(Calls target) {
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTarget(target);
+        proxyFactory.addInterface(Calls.class);
+        proxyFactory.addAdvice(new MethodTimer("books.test", "Calls", () -> registry));
+        return (Calls) proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,48 @@
+package com.usmobile.demo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SampledLogTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final SampledLogTurboFilter filter = new SampledLogTurboFilter();
+
+    @AfterEach
+    void clearMdc() {
+        MDC.clear();
+    }
+
+    @Test
+    void testInfoDroppedOnlyForUnsampledRequests() {
+        Logger service = context.getLogger("com.usmobile.demo.service.BookServiceImpl");
+
+        // Assertions
+        assertEquals(FilterReply.NEUTRAL, decide(service, Level.INFO));
+        MDC.put(RequestCorrelationFilter.SAMPLED_KEY, "true");
+        assertEquals(FilterReply.NEUTRAL, decide(service, Level.INFO));
+        MDC.put(RequestCorrelationFilter.SAMPLED_KEY, "false");
+        assertEquals(FilterReply.DENY, decide(service, Level.INFO));
+    }
+
+    @Test
+    void testWarningsErrorsAndOtherLoggersAlwaysPass() {
+        MDC.put(RequestCorrelationFilter.SAMPLED_KEY, "false");
+
+        // Assertions
+        assertEquals(FilterReply.NEUTRAL, decide(context.getLogger("com.usmobile.demo.exception.GlobalExceptionHandler"), Level.ERROR));
+        assertEquals(FilterReply.NEUTRAL, decide(context.getLogger("com.usmobile.demo.service.BookServiceImpl"), Level.WARN));
+        assertEquals(FilterReply.NEUTRAL, decide(context.getLogger("org.mongodb.driver"), Level.INFO));
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return filter.decide(null, logger, level, "message", null, null);
+    }
+}
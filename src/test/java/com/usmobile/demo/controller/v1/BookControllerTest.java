@@ -1,30 +1,75 @@
 package com.usmobile.demo.controller.v1;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usmobile.demo.config.RequestCorrelationFilter;
+import com.usmobile.demo.core.BookBatchItemResultDTO;
+import com.usmobile.demo.core.BookBatchItemStatus;
 import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.core.BookPageDTO;
+import com.usmobile.demo.core.BookQuery;
+import com.usmobile.demo.core.BookSearchPageDTO;
+import com.usmobile.demo.core.BookSyncDTO;
+import com.usmobile.demo.core.BookWriteDTO;
+import com.usmobile.demo.core.BookWriteStatus;
 import com.usmobile.demo.exception.DuplicateIsbnException;
 import com.usmobile.demo.exception.EntityNotFoundException;
+import com.usmobile.demo.exception.PreconditionFailedException;
 import com.usmobile.demo.exception.ServiceException;
+import com.usmobile.demo.exception.TooManyRequestsException;
+import com.usmobile.demo.service.BookChangeFeed;
+import com.usmobile.demo.service.BookChangedEvent;
+import com.usmobile.demo.service.BookPageResponseCache;
 import com.usmobile.demo.service.BookServiceInterface;
+import com.usmobile.demo.util.ApiResponse;
+import com.usmobile.demo.util.CborHelper;
+import com.usmobile.demo.util.ETagHelper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.coyote.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookController.class)
@@ -39,6 +84,20 @@ class BookControllerTest {
     @Autowired
     private BookServiceInterface bookService;
 
+    @Autowired
+    private BookPageResponseCache pageCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookChangeFeed changeFeed;
+
+    @BeforeEach
+    void clearPageCache() {
+        pageCache.invalidateAll();
+    }
+
     @Test
     void testCreateBook_success() throws Exception {
         Mockito.when(bookService.createBook(any(BookDTO.class))).thenReturn(getBookDTOTestObj());
@@ -78,6 +137,78 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.errorCode").value("DUPLICATE_ISBN"));
     }
 
+    @Test
+    void testCreateBook_respondAsyncQueuesWrite() throws Exception {
+        doReturn(new BookWriteDTO("T1", "B1", BookWriteStatus.QUEUED, null))
+                .when(bookService).createBookAsync(any(BookDTO.class));
+
+        mockMvc.perform(post("/books")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(getBookDTOTestObj())))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/books/writes/T1"))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.data.bookId").value("B1"))
+                .andExpect(jsonPath("$.data.status").value("QUEUED"));
+    }
+
+    @Test
+    void testCreateBook_writeQueueFull() throws Exception {
+        doThrow(new TooManyRequestsException("Too many pending writes, please retry later"))
+                .when(bookService).createBookAsync(any(BookDTO.class));
+
+        mockMvc.perform(post("/books")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(getBookDTOTestObj())))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.errorCode").value("TOO_MANY_REQUESTS"));
+    }
+
+    @Test
+    void testUpdateBook_respondAsyncIgnoredWithIfMatch() throws Exception {
+        BookDTO update = new BookDTO();
+        update.setTitle("Queued title");
+        doReturn(new BookWriteDTO("T2", "ASYNC1", BookWriteStatus.QUEUED, null))
+                .when(bookService).updateBookAsync(argThat(book -> book != null && "ASYNC1".equals(book.getId())));
+        BookDTO updated = getBookDTOTestObj();
+        updated.setId("ASYNC1");
+        updated.setVersion(2L);
+        doReturn(updated).when(bookService).updateBook(argThat(book -> book != null && "ASYNC1".equals(book.getId())), eq(1L));
+
+        mockMvc.perform(patch("/books/{id}", "ASYNC1")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.data.trackingId").value("T2"));
+
+        mockMvc.perform(patch("/books/{id}", "ASYNC1")
+                        .header("Prefer", "respond-async")
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+    }
+
+    @Test
+    void testGetWrite() throws Exception {
+        doReturn(new BookWriteDTO("T3", "B3", BookWriteStatus.DUPLICATE_ISBN, "ISBN '1234567890' already exists"))
+                .when(bookService).findWrite("T3");
+        doThrow(new EntityNotFoundException("Write with tracking ID T4 not found or expired"))
+                .when(bookService).findWrite("T4");
+
+        mockMvc.perform(get("/books/writes/{trackingId}", "T3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("DUPLICATE_ISBN"))
+                .andExpect(jsonPath("$.data.message").value("ISBN '1234567890' already exists"));
+        mockMvc.perform(get("/books/writes/{trackingId}", "T4"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testCreateCreationErrorException_unexpectedError() throws Exception {
         Mockito.when(bookService.createBook(any(BookDTO.class)))
@@ -91,28 +222,299 @@ class BookControllerTest {
     }
 
 
+    // BATCH CREATE
+    @Test
+    void testCreateBooks_allCreated() throws Exception {
+        doReturn(List.of(
+                new BookBatchItemResultDTO(0, BookBatchItemStatus.CREATED, "id-0", null),
+                new BookBatchItemResultDTO(1, BookBatchItemStatus.CREATED, "id-1", null)))
+                .when(bookService).createBooks(anyList());
+
+        mockMvc.perform(post("/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(getBookDTOTestObj(), getBookDTOTestObj()))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message").value("2 of 2 books created"))
+                .andExpect(jsonPath("$.data[1].id").value("id-1"));
+    }
+
+    @Test
+    void testCreateBooks_partialFailure() throws Exception {
+        doReturn(List.of(
+                new BookBatchItemResultDTO(0, BookBatchItemStatus.CREATED, "id-0", null),
+                new BookBatchItemResultDTO(1, BookBatchItemStatus.DUPLICATE_ISBN, null, "ISBN '1234567890123' already exists"),
+                new BookBatchItemResultDTO(2, BookBatchItemStatus.INVALID, null, "Title is required and cannot be empty")))
+                .when(bookService).createBooks(anyList());
+
+        mockMvc.perform(post("/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(getBookDTOTestObj(), getBookDTOTestObj(), new BookDTO()))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.message").value("1 of 3 books created"))
+                .andExpect(jsonPath("$.data[1].status").value("DUPLICATE_ISBN"))
+                .andExpect(jsonPath("$.data[2].status").value("INVALID"));
+    }
+
+    @Test
+    void testCreateBooks_emptyBatch() throws Exception {
+        doThrow(new BadRequestException("A batch must contain between 1 and 10000 books"))
+                .when(bookService).createBooks(anyList());
+
+        mockMvc.perform(post("/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("BAD_REQUEST"));
+    }
+
     // GET ALL
 
     @Test
     void testGetAllBooks_returnsBooks() throws Exception {
-        when(bookService.getAllBooks()).thenReturn(List.of(getBookDTOTestObj()));
+        when(bookService.getBooksPage(any(BookQuery.class), eq(50), isNull())).thenReturn(new BookPageDTO(List.of(getBookDTOTestObj()), null));
 
         mockMvc.perform(get("/books")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.data").isNotEmpty())
-                .andExpect(jsonPath("$.data[0].title").value("Test Book"));
+                .andExpect(jsonPath("$.data.books").isNotEmpty())
+                .andExpect(jsonPath("$.data.books[0].title").value("Test Book"))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void testGetAllBooks_repeatedListingServedFromCacheUntilBookChanges() throws Exception {
+        doReturn(new BookPageDTO(List.of(getBookDTOTestObj()), null))
+                .when(bookService).getBooksPage(argThat(query -> query != null && "Author Cached".equals(query.getAuthor())), eq(50), isNull());
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/books").param("author", "Author Cached"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.books[0].title").value("Test Book"));
+        }
+        verify(bookService, times(1)).getBooksPage(argThat(query -> query != null && "Author Cached".equals(query.getAuthor())), eq(50), isNull());
+
+        pageCache.onBookChanged(BookChangedEvent.deleted("1"));
+        mockMvc.perform(get("/books").param("author", "Author Cached"))
+                .andExpect(status().isOk());
+        verify(bookService, times(2)).getBooksPage(argThat(query -> query != null && "Author Cached".equals(query.getAuthor())), eq(50), isNull());
+    }
+
+    @Test
+    void testGetChangedBooks_modifiedSinceListsChangesAndDeletionsInsteadOfListing() throws Exception {
+        Instant checkpoint = Instant.parse("2025-01-01T10:00:00Z");
+        BookDTO changed = getBookDTOTestObj();
+        changed.setLastModified(Instant.parse("2025-01-01T09:30:00Z"));
+        doReturn(new BookSyncDTO(List.of(changed), List.of("DELETED1"), null, checkpoint))
+                .when(bookService).getChangedBooks("2025-01-01T09:00:00Z", 500, null);
+
+        mockMvc.perform(get("/books").param("modifiedSince", "2025-01-01T09:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Changes found"))
+                .andExpect(jsonPath("$.data.books[0].title").value("Test Book"))
+                .andExpect(jsonPath("$.data.books[0].lastModified").value("2025-01-01T09:30:00Z"))
+                .andExpect(jsonPath("$.data.deletedIds[0]").value("DELETED1"))
+                .andExpect(jsonPath("$.data.checkpoint").value("2025-01-01T10:00:00Z"));
+    }
+
+    @Test
+    void testGetChangedBooks_expiredCheckpointIsBadRequest() throws Exception {
+        doThrow(new BadRequestException("modifiedSince must be within the last 30 days, deletions are not kept longer; reload the catalog"))
+                .when(bookService).getChangedBooks("2000-01-01T00:00:00Z", 500, null);
+
+        mockMvc.perform(get("/books").param("modifiedSince", "2000-01-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetAllBooks_gzipOnlyWhenAccepted() throws Exception {
+        doReturn(new BookPageDTO(List.of(getBookDTOTestObj()), null))
+                .when(bookService).getBooksPage(argThat(query -> query != null && "Author Gzip".equals(query.getAuthor())), eq(50), isNull());
+
+        byte[] compressed = mockMvc.perform(get("/books").param("author", "Author Gzip")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, "Accept-Encoding, Accept"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8).contains("\"Test Book\""));
+        }
+
+        mockMvc.perform(get("/books").param("author", "Author Gzip")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.data.books[0].title").value("Test Book"));
+    }
+
+    @Test
+    void testGetAllBooks_cborWhenRankedAboveJson() throws Exception {
+        doReturn(new BookPageDTO(List.of(getBookDTOTestObj()), null))
+                .when(bookService).getBooksPage(argThat(query -> query != null && "Author Cbor".equals(query.getAuthor())), eq(50), isNull());
+
+        byte[] body = mockMvc.perform(get("/books").param("author", "Author Cbor")
+                        .header(HttpHeaders.ACCEPT, "application/cbor, application/json;q=0.5")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode book = CborHelper.newMapper().readTree(body).path("data").path("books").get(0);
+
+        // Assertions
+        assertEquals("Test Book", book.path("title").asText());
+        assertTrue(book.path("publishedDate").isIntegralNumber());
+        assertEquals(LocalDate.of(2024, 1, 1).toEpochDay(), book.path("publishedDate").asLong());
+
+        mockMvc.perform(get("/books").param("author", "Author Cbor")
+                        .header(HttpHeaders.ACCEPT, "application/json, application/cbor;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.books[0].publishedDate").value("2024-01-01"));
+    }
+
+    @Test
+    void testCreateBook_cborRequestAndResponse() throws Exception {
+        ObjectMapper cborMapper = CborHelper.newMapper();
+        BookDTO request = getBookDTOTestObj();
+        request.setIsbn("9780000000001");
+        BookDTO created = getBookDTOTestObj();
+        created.setIsbn("9780000000001");
+        created.setLastModified(Instant.parse("2025-01-01T10:00:00.123Z"));
+        doReturn(created).when(bookService).createBook(argThat(book -> book != null
+                && "9780000000001".equals(book.getIsbn()) && LocalDate.of(2024, 1, 1).equals(book.getPublishedDate())));
+
+        byte[] body = mockMvc.perform(post("/books")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(request)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        ApiResponse<BookDTO> response = cborMapper.readValue(body, new TypeReference<>() {
+        });
+        JsonNode data = cborMapper.readTree(body).path("data");
+
+        // Assertions
+        assertEquals("9780000000001", response.getData().getIsbn());
+        assertEquals(LocalDate.of(2024, 1, 1), response.getData().getPublishedDate());
+        assertEquals(created.getLastModified().toEpochMilli(), data.path("lastModified").asLong());
+    }
+
+    @Test
+    void testSearchBooks_prefixMode() throws Exception {
+        when(bookService.searchBooks("tes", "prefix", 1, 10))
+                .thenReturn(new BookSearchPageDTO(List.of(getBookDTOTestObj()), 1, 10, true));
+
+        mockMvc.perform(get("/books/search")
+                        .param("q", "tes")
+                        .param("mode", "prefix")
+                        .param("page", "1")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Books found"))
+                .andExpect(jsonPath("$.data.books[0].title").value("Test Book"))
+                .andExpect(jsonPath("$.data.page").value(1))
+                .andExpect(jsonPath("$.data.hasNext").value(true));
+    }
+
+    @Test
+    void testSearchBooks_blankQuery() throws Exception {
+        doThrow(new BadRequestException("Search query q must not be blank"))
+                .when(bookService).searchBooks(isNull(), eq("TEXT"), eq(0), eq(20));
+
+        mockMvc.perform(get("/books/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Search query q must not be blank"));
+    }
+
+    @Test
+    void testAutocomplete() throws Exception {
+        when(bookService.autocomplete("du", 5)).thenReturn(List.of("Dune", "Dune Messiah"));
+
+        mockMvc.perform(get("/books/autocomplete")
+                        .param("prefix", "du")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Completions found"))
+                .andExpect(jsonPath("$.data[1]").value("Dune Messiah"));
     }
 
     @Test
     void testGetAllBooks_returnsEmptyList() throws Exception {
-        when(bookService.getAllBooks()).thenReturn(List.of());
+        when(bookService.getBooksPage(any(BookQuery.class), anyInt(), any())).thenReturn(new BookPageDTO(List.of(), null));
 
         mockMvc.perform(get("/books")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("No books found"))
-                .andExpect(jsonPath("$.data").isEmpty());
+                .andExpect(jsonPath("$.data.books").isEmpty());
+    }
+
+    @Test
+    void testGetAllBooks_withCursor() throws Exception {
+        when(bookService.getBooksPage(any(BookQuery.class), eq(2), eq("NjY0ZjFh"))).thenReturn(new BookPageDTO(List.of(getBookDTOTestObj()), "NjY0ZjFi"));
+
+        mockMvc.perform(get("/books")
+                        .param("limit", "2")
+                        .param("after", "NjY0ZjFh"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.books[0].title").value("Test Book"))
+                .andExpect(jsonPath("$.data.nextCursor").value("NjY0ZjFi"));
+    }
+
+    @Test
+    void testGetAllBooks_bindsFiltersAndSort() throws Exception {
+        doReturn(new BookPageDTO(List.of(getBookDTOTestObj()), null)).when(bookService).getBooksPage(
+                argThat(query -> query != null
+                        && "Author A".equals(query.getAuthor())
+                        && "test".equals(query.getTitleContains())
+                        && LocalDate.of(2020, 1, 1).equals(query.getPublishedFrom())
+                        && LocalDate.of(2024, 12, 31).equals(query.getPublishedTo())
+                        && "-publishedDate".equals(query.getSort())),
+                eq(50), isNull());
+
+        mockMvc.perform(get("/books")
+                        .param("author", "Author A")
+                        .param("titleContains", "test")
+                        .param("publishedFrom", "2020-01-01")
+                        .param("publishedTo", "2024-12-31")
+                        .param("sort", "-publishedDate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.books[0].title").value("Test Book"));
+    }
+
+    @Test
+    void testGetAllBooks_invalidCursor() throws Exception {
+        when(bookService.getBooksPage(any(BookQuery.class), anyInt(), eq("bad")))
+                .thenThrow(new BadRequestException("Invalid pagination cursor 'bad'"));
+
+        mockMvc.perform(get("/books")
+                        .param("after", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid pagination cursor 'bad'"))
+                .andExpect(jsonPath("$.errorCode").value("BAD_REQUEST"));
+    }
+
+    // EXPORT
+    @Test
+    void testExportBooks_streamsNdjson() throws Exception {
+        BookDTO first = getBookDTOTestObj();
+        first.setId("1");
+        BookDTO second = getBookDTOTestObj();
+        second.setId("2");
+        when(bookService.streamAllBooks()).thenReturn(Stream.of(first, second));
+
+        MvcResult result = mockMvc.perform(get("/books/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String expected = objectMapper.writeValueAsString(first) + "\n"
+                + objectMapper.writeValueAsString(second) + "\n";
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(expected));
     }
 
     // DELETE
@@ -120,7 +522,7 @@ class BookControllerTest {
     void testDeleteBook_success() throws Exception {
         String bookId = "123AXXDx";
 
-        when(bookService.deleteBook(bookId)).thenReturn(true);
+        doReturn(true).when(bookService).deleteBook(bookId, null);
 
         mockMvc.perform(delete("/books/{id}", bookId)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -132,7 +534,7 @@ class BookControllerTest {
     @Test
     void testDeleteBook_entityNotFoundException() throws Exception {
         String bookId = "456axxs";
-        doThrow(new EntityNotFoundException("Not found")).when(bookService).deleteBook(bookId);
+        doThrow(new EntityNotFoundException("Not found")).when(bookService).deleteBook(bookId, null);
 
         mockMvc.perform(delete("/books/{id}", bookId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -140,14 +542,18 @@ class BookControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value("Not found"))
                 .andExpect(jsonPath("$.errorCode").value("ENTITY_NOT_FOUND"));
+
+        assertTrue(meterRegistry.get("books.errors")
+                .tags("code", "ENTITY_NOT_FOUND", "exception", "EntityNotFoundException")
+                .counter().count() >= 1);
     }
 
     @Test
     void testDeleteBook_unexpectedError() throws Exception {
         String bookId = "789";
 
-        when(bookService.deleteBook(bookId))
-                .thenThrow(new ServiceException("Unexpected error occurred while deleting book with id " + bookId, new RuntimeException()));
+        doThrow(new ServiceException("Unexpected error occurred while deleting book with id " + bookId, new RuntimeException()))
+                .when(bookService).deleteBook(bookId, null);
 
         mockMvc.perform(delete("/books/{id}", bookId)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -155,11 +561,24 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.message").value("Unexpected error occurred while deleting book with id " + bookId));
     }
 
+    @Test
+    void testDeleteBooks_success() throws Exception {
+        doReturn(2L).when(bookService).deleteBooks(List.of("a", "b", "c"));
+
+        mockMvc.perform(delete("/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of("a", "b", "c"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("2 books deleted"))
+                .andExpect(jsonPath("$.data").value(2));
+    }
+
     // GET BY ID
     @Test
     void testGetBookById_found() throws Exception {
         BookDTO bookDTO = getBookDTOTestObj();
-        Mockito.when(bookService.findBookById("ABC1xs")).thenReturn(bookDTO);
+        bookDTO.setId("ABC1xs");
+        Mockito.when(bookService.findBookById(eq("ABC1xs"), isNull())).thenReturn(bookDTO);
 
         mockMvc.perform(get("/books/{id}", "ABC1xs"))
                 .andExpect(status().isOk())
@@ -168,22 +587,125 @@ class BookControllerTest {
     }
 
 
+    @Test
+    void testGetBookById_returnsETagAndNotModified() throws Exception {
+        BookDTO bookDTO = getBookDTOTestObj();
+        bookDTO.setId("ETAG1");
+        bookDTO.setVersion(3L);
+        doReturn(bookDTO).when(bookService).findBookById("ETAG1", null);
+
+        mockMvc.perform(get("/books/{id}", "ETAG1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.data.version").value(3));
+
+        mockMvc.perform(get("/books/{id}", "ETAG1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetAllBooks_weakETagAndNotModified() throws Exception {
+        BookDTO bookDTO = getBookDTOTestObj();
+        bookDTO.setId("ETAG2");
+        bookDTO.setVersion(1L);
+        doReturn(new BookPageDTO(List.of(bookDTO), null))
+                .when(bookService).getBooksPage(argThat(query -> query != null && "Author ETag".equals(query.getAuthor())), eq(50), isNull());
+
+        String etag = mockMvc.perform(get("/books").param("author", "Author ETag"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertTrue(etag.startsWith("W/\""));
+        mockMvc.perform(get("/books").param("author", "Author ETag")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testRequestIdEchoedOrGenerated() throws Exception {
+        doReturn(getBookDTOTestObj()).when(bookService).findBookById("REQ1", null);
+
+        mockMvc.perform(get("/books/{id}", "REQ1")
+                        .header(RequestCorrelationFilter.REQUEST_ID_HEADER, "client-42"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RequestCorrelationFilter.REQUEST_ID_HEADER, "client-42"));
+
+        String generated = mockMvc.perform(get("/books/{id}", "REQ1")
+                        .header(RequestCorrelationFilter.REQUEST_ID_HEADER, "not valid\r\n"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(RequestCorrelationFilter.REQUEST_ID_HEADER);
+        assertEquals(36, generated.length());
+    }
+
+    @Test
+    void testGetBookById_withFieldsOmitsOtherProperties() throws Exception {
+        BookDTO projected = new BookDTO();
+        projected.setId("ABC1xs");
+        projected.setTitle("Test Book");
+        doReturn(projected).when(bookService).findBookById("ABC1xs", "title");
+
+        mockMvc.perform(get("/books/{id}", "ABC1xs")
+                        .param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value("ABC1xs"))
+                .andExpect(jsonPath("$.data.title").value("Test Book"))
+                .andExpect(jsonPath("$.data.isbn").doesNotExist())
+                .andExpect(jsonPath("$.data.publishedDate").doesNotExist());
+    }
+
+    @Test
+    void testGetBookById_unknownField() throws Exception {
+        doThrow(new BadRequestException("Unknown field 'price', expected id, title, author, isbn or publishedDate"))
+                .when(bookService).findBookById("ABC1xs", "price");
+
+        mockMvc.perform(get("/books/{id}", "ABC1xs")
+                        .param("fields", "price"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("BAD_REQUEST"));
+    }
+
     @Test
     void testGetBookById_entityNotFoundException() throws Exception {
-        Mockito.when(bookService.findBookById(anyString()))
+        Mockito.when(bookService.findBookById(anyString(), any()))
                 .thenThrow(new EntityNotFoundException("Book with ID 1 not found"));
 
         mockMvc.perform(get("/books/{id}", "1"))
                 .andExpect(status().isNotFound());
     }
 
+    // GET BY ISBN
+    @Test
+    void testGetBookByIsbn_found() throws Exception {
+        BookDTO bookDTO = getBookDTOTestObj();
+        bookDTO.setId("ABC1xs");
+        Mockito.when(bookService.findBookByIsbn("1234567890123")).thenReturn(bookDTO);
+
+        mockMvc.perform(get("/books/isbn/{isbn}", "1234567890123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value("ABC1xs"))
+                .andExpect(jsonPath("$.data.isbn").value("1234567890123"));
+    }
+
+    @Test
+    void testGetBookByIsbn_entityNotFoundException() throws Exception {
+        Mockito.when(bookService.findBookByIsbn("0000000000"))
+                .thenThrow(new EntityNotFoundException("Book with ISBN 0000000000 not found"));
+
+        mockMvc.perform(get("/books/isbn/{isbn}", "0000000000"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Book with ISBN 0000000000 not found"));
+    }
+
     // UPDATE
 
     @Test
     void testUpdateBook_success() throws Exception {
         BookDTO bookDTO = getBookDTOTestObj();
         bookDTO.setId("1234567");
-        Mockito.when(bookService.updateBook(any(BookDTO.class))).thenReturn(bookDTO);
+        doReturn(bookDTO).when(bookService).updateBook(any(BookDTO.class), any());
 
         mockMvc.perform(put("/books/{id}", bookDTO.getId())
                         .contentType(MediaType.APPLICATION_JSON)
@@ -195,14 +717,68 @@ class BookControllerTest {
     }
 
 
+    @Test
+    void testPatchBook_success() throws Exception {
+        BookDTO bookDTO = getBookDTOTestObj();
+        bookDTO.setId("1234567");
+        doReturn(bookDTO).when(bookService).updateBook(any(BookDTO.class), any());
+
+        mockMvc.perform(patch("/books/{id}", bookDTO.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Test Book\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Book updated successfully"))
+                .andExpect(jsonPath("$.data.title").value(bookDTO.getTitle()));
+    }
+
+    @Test
+    void testUpdateBook_ifMatchPassesVersionAndReturnsNewETag() throws Exception {
+        BookDTO updated = getBookDTOTestObj();
+        updated.setId("ETAG3");
+        updated.setVersion(5L);
+        doReturn(updated).when(bookService).updateBook(argThat(book -> book != null && "ETAG3".equals(book.getId())), eq(4L));
+
+        mockMvc.perform(patch("/books/{id}", "ETAG3")
+                        .header(HttpHeaders.IF_MATCH, "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Test Book\",\"version\":99}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+
+        verify(bookService).updateBook(argThat(book -> book != null && "ETAG3".equals(book.getId()) && book.getVersion() == null), eq(4L));
+    }
+
+    @Test
+    void testUpdateBook_staleIfMatch() throws Exception {
+        doThrow(new PreconditionFailedException("Book with ID ETAG4 has been modified since version 1 was read"))
+                .when(bookService).updateBook(argThat(book -> book != null && "ETAG4".equals(book.getId())), eq(1L));
+
+        mockMvc.perform(put("/books/{id}", "ETAG4")
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Test Book\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.errorCode").value("PRECONDITION_FAILED"));
+    }
+
+    @Test
+    void testDeleteBook_weakIfMatchNeverMatches() throws Exception {
+        doThrow(new PreconditionFailedException("Book with ID ETAG5 has been modified since version -1 was read"))
+                .when(bookService).deleteBook("ETAG5", ETagHelper.NO_VERSION);
+
+        mockMvc.perform(delete("/books/{id}", "ETAG5")
+                        .header(HttpHeaders.IF_MATCH, "W/\"2\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void testUpdateBook_invalidIsbn() throws Exception {
         BookDTO bookDTO = new BookDTO();
         bookDTO.setId("1234567");
         bookDTO.setIsbn("123");
 
-        Mockito.when(bookService.updateBook(any(BookDTO.class)))
-                .thenThrow(new BadRequestException("ISBN must be either 10 or 13 characters long"));
+        doThrow(new BadRequestException("ISBN must be either 10 or 13 characters long"))
+                .when(bookService).updateBook(any(BookDTO.class), any());
 
         mockMvc.perform(put("/books/{id}", bookDTO.getId())
                         .contentType(MediaType.APPLICATION_JSON)
@@ -217,7 +793,8 @@ class BookControllerTest {
     void testUpdateBook_entityNotFoundException() throws Exception {
         BookDTO bookDTO = getBookDTOTestObj();
         bookDTO.setId("123456");
-        Mockito.when(bookService.updateBook(any(BookDTO.class))).thenThrow(new EntityNotFoundException("Book with id " + bookDTO.getId() + " not found"));
+        doThrow(new EntityNotFoundException("Book with id " + bookDTO.getId() + " not found"))
+                .when(bookService).updateBook(any(BookDTO.class), any());
 
         mockMvc.perform(put("/books/{id}", bookDTO.getId())
                         .contentType(MediaType.APPLICATION_JSON)
@@ -228,6 +805,55 @@ class BookControllerTest {
     }
 
 
+    @Test
+    void testStreamChanges_sendsNewChangesAndReplaysMissedOnes() throws Exception {
+        double subscribers = meterRegistry.get("books.changes.subscribers").gauge().value();
+        MvcResult live = mockMvc.perform(get("/books/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        awaitSubscribers(subscribers + 1);
+        BookDTO book = getBookDTOTestObj();
+        book.setId("SSE1");
+        changeFeed.onBookChanged(BookChangedEvent.updated(book));
+        changeFeed.onBookChanged(BookChangedEvent.deleted("SSE2"));
+
+        String stream = awaitContent(live, "SSE2");
+        assertTrue(stream.contains("event:updated"));
+        assertTrue(stream.contains("\"title\":\"Test Book\""));
+        String firstId = stream.substring(stream.indexOf("id:") + 3, stream.indexOf('\n', stream.indexOf("id:")));
+
+        MvcResult resumed = mockMvc.perform(get("/books/changes").header("Last-Event-ID", firstId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String replayed = awaitContent(resumed, "SSE2");
+        assertFalse(replayed.contains("SSE1"));
+        assertTrue(replayed.contains("event:deleted"));
+    }
+
+    @Test
+    void testStreamChanges_unknownLastEventIdGetsReset() throws Exception {
+        MvcResult result = mockMvc.perform(get("/books/changes").header("Last-Event-ID", "previous-process-42"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertTrue(awaitContent(result, "event:reset").contains("data:reload"));
+    }
+
+    private void awaitSubscribers(double count) throws InterruptedException {
+        for (int i = 0; i < 100 && meterRegistry.get("books.changes.subscribers").gauge().value() < count; i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        for (int i = 0; i < 100 && !result.getResponse().getContentAsString().contains(expected); i++) {
+            Thread.sleep(20);
+        }
+        String content = result.getResponse().getContentAsString();
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
+
     private BookDTO getBookDTOTestObj() {
         BookDTO book = new BookDTO();
 
@@ -244,5 +870,20 @@ class BookControllerTest {
         public BookServiceInterface bookService() {
             return Mockito.mock(BookServiceInterface.class);
         }
+
+        @Bean
+        public BookPageResponseCache bookPageResponseCache(ObjectMapper objectMapper) {
+            return new BookPageResponseCache(new ConcurrentMapCacheManager(), objectMapper, 64);
+        }
+
+        @Bean
+        public BookChangeFeed bookChangeFeed(MeterRegistry meterRegistry) {
+            return new BookChangeFeed(meterRegistry, 2, Duration.ofMinutes(1), Duration.ofMinutes(1), false);
+        }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
     }
 }
@@ -0,0 +1,180 @@
+package com.usmobile.demo.controller.v1;
+
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.core.BookPageDTO;
+import com.usmobile.demo.core.BookQuery;
+import com.usmobile.demo.exception.DuplicateIsbnException;
+import com.usmobile.demo.exception.EntityNotFoundException;
+import com.usmobile.demo.service.ReactiveBookServiceInterface;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
+
+@WebFluxTest(ReactiveBookController.class)
+class ReactiveBookControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveBookServiceInterface bookService;
+
+    @Test
+    void testCreateBook_success() {
+        doReturn(Mono.just(getBookDTOTestObj())).when(bookService).createBook(any(BookDTO.class));
+
+        webTestClient.post().uri("/books")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(getBookDTOTestObj())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.data.title").isEqualTo("Test Book")
+                .jsonPath("$.data.isbn").isEqualTo("1234567890123");
+    }
+
+    @Test
+    void testCreateBook_missingTitle() {
+        BookDTO bookDTO = getBookDTOTestObj();
+        bookDTO.setTitle("");
+
+        webTestClient.post().uri("/books")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(bookDTO)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Title is required and cannot be empty")
+                .jsonPath("$.errorCode").isEqualTo("VALIDATION_ERROR");
+    }
+
+    @Test
+    void testCreateBook_duplicateIsbn() {
+        doReturn(Mono.error(new DuplicateIsbnException("Book with ISBN 1234567890123 already exists")))
+                .when(bookService).createBook(any(BookDTO.class));
+
+        webTestClient.post().uri("/books")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(getBookDTOTestObj())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("DUPLICATE_ISBN");
+    }
+
+    @Test
+    void testGetAllBooks_firstPage() {
+        BookDTO book = getBookDTOTestObj();
+        book.setId("6650f1c2a1b2c3d4e5f60718");
+        doReturn(Mono.just(new BookPageDTO(List.of(book), "next")))
+                .when(bookService).getBooksPage(any(BookQuery.class), eq(50), isNull());
+
+        webTestClient.get().uri("/books")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Books found")
+                .jsonPath("$.data.books[0].title").isEqualTo("Test Book")
+                .jsonPath("$.data.nextCursor").isEqualTo("next");
+    }
+
+    @Test
+    void testExportBooks_ndjson() {
+        BookDTO first = getBookDTOTestObj();
+        BookDTO second = getBookDTOTestObj();
+        second.setTitle("Second Book");
+        doReturn(Flux.just(first, second)).when(bookService).streamAllBooks();
+
+        webTestClient.get().uri("/books/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(BookDTO.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void testGetBookById_notFound() {
+        doReturn(Mono.error(new EntityNotFoundException("Book with ID 123 not found")))
+                .when(bookService).findBookById(anyString(), any());
+
+        webTestClient.get().uri("/books/123")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Book with ID 123 not found");
+    }
+
+    @Test
+    void testUpdateBook_patch() {
+        BookDTO updated = getBookDTOTestObj();
+        updated.setId("123");
+        updated.setTitle("New Title");
+        doReturn(Mono.just(updated)).when(bookService).updateBook(any(BookDTO.class));
+
+        webTestClient.patch().uri("/books/123")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\":\"New Title\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.title").isEqualTo("New Title");
+    }
+
+    @Test
+    void testDeleteBooks_bulk() {
+        doReturn(Mono.just(2L)).when(bookService).deleteBooks(any());
+
+        webTestClient.method(HttpMethod.DELETE).uri("/books")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of("1", "2"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("2 books deleted")
+                .jsonPath("$.data").isEqualTo(2);
+    }
+
+    private BookDTO getBookDTOTestObj() {
+        BookDTO book = new BookDTO();
+
+        book.setTitle("Test Book");
+        book.setAuthor("Author A");
+        book.setIsbn("1234567890123");
+        book.setPublishedDate(LocalDate.of(2024, 1, 1));
+        return book;
+    }
+
+    @TestConfiguration
+    static class MockConfig {
+        @Bean
+        public ReactiveBookServiceInterface bookService() {
+            return Mockito.mock(ReactiveBookServiceInterface.class);
+        }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -1,14 +1,29 @@
 package com.usmobile.demo.repository;
 
+import com.mongodb.bulk.BulkWriteError;
+import com.usmobile.demo.core.BookQuery;
 import com.usmobile.demo.entity.BookDAO;
+import com.usmobile.demo.entity.BookTombstoneDAO;
+import com.usmobile.demo.util.BookHelper;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,6 +33,9 @@ public class BookRepositoryTest {
     @Autowired
     private BookRepositoryInterface bookRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     private BookDAO book;
 
     @BeforeEach
@@ -28,6 +46,7 @@ public class BookRepositoryTest {
     @AfterEach
     void tearDown() {
         bookRepository.deleteAll();
+        mongoTemplate.remove(new Query(), BookTombstoneDAO.class);
     }
 
     @Test
@@ -53,6 +72,39 @@ public class BookRepositoryTest {
         assertEquals("Test Book", foundBook.get().getTitle());
     }
 
+    @Test
+    void testGetBookByIsbn() {
+        Optional<BookDAO> foundBook = bookRepository.findByIsbn("1234567890123");
+
+        // Assertions
+        assertTrue(foundBook.isPresent());
+        assertEquals(book.getId(), foundBook.get().getId());
+        assertFalse(bookRepository.findByIsbn("0000000000").isPresent());
+    }
+
+    @Test
+    void testUpdateFields() {
+        Optional<BookDAO> updated = bookRepository.updateFields(book.getId(), null, new Update().set("title", "New Title"));
+
+        // Assertions
+        assertTrue(updated.isPresent());
+        assertEquals("New Title", updated.get().getTitle());
+        assertEquals(book.getIsbn(), updated.get().getIsbn());
+        assertFalse(bookRepository.updateFields(new ObjectId().toHexString(), null, new Update().set("title", "x")).isPresent());
+    }
+
+    @Test
+    void testUpdateFields_conditionalOnVersionAndIncrementsIt() {
+        // Assertions
+        assertEquals(0L, book.getVersion());
+        assertFalse(bookRepository.updateFields(book.getId(), 1L, new Update().set("title", "Stale")).isPresent());
+        Optional<BookDAO> updated = bookRepository.updateFields(book.getId(), 0L, new Update().set("title", "New Title"));
+        assertTrue(updated.isPresent());
+        assertEquals(1L, updated.get().getVersion());
+        assertEquals(0L, bookRepository.removeByIdAndVersion(book.getId(), 0L));
+        assertEquals(1L, bookRepository.removeByIdAndVersion(book.getId(), 1L));
+    }
+
     @Test
     void testDeleteBook() {
         bookRepository.deleteById(book.getId());
@@ -62,6 +114,26 @@ public class BookRepositoryTest {
         assertFalse(foundBook.isPresent());
     }
 
+    @Test
+    void testRemoveById_reportsDeletedCount() {
+        // Assertions
+        assertEquals(1L, bookRepository.removeById(book.getId()));
+        assertEquals(0L, bookRepository.removeById(book.getId()));
+    }
+
+    @Test
+    void testRemoveByIds() {
+        BookDAO second = getBookDAOTestObj();
+        second.setIsbn("5555555555");
+        second = bookRepository.save(second);
+
+        long deleted = bookRepository.removeByIds(List.of(book.getId(), second.getId(), new ObjectId().toHexString()));
+
+        // Assertions
+        assertEquals(2L, deleted);
+        assertEquals(0L, bookRepository.count());
+    }
+
     @Test
     void testFindAllBooks() {
         List<BookDAO> books = bookRepository.findAll();
@@ -71,6 +143,214 @@ public class BookRepositoryTest {
         assertTrue(books.contains(book));
     }
 
+    @Test
+    void testStreamAllBooks() {
+        try (Stream<BookDAO> books = bookRepository.streamAllBy()) {
+            // Assertions
+            assertEquals(List.of(book), books.toList());
+        }
+    }
+
+    @Test
+    void testInsertUnordered_reportsDuplicateIsbnWithoutAborting() {
+        BookDAO duplicate = getBookDAOTestObj();
+        duplicate.setId(new ObjectId().toHexString());
+        BookDAO fresh = getBookDAOTestObj();
+        fresh.setId(new ObjectId().toHexString());
+        fresh.setIsbn("5555555555");
+
+        List<BulkWriteError> errors = bookRepository.insertUnordered(List.of(duplicate, fresh));
+
+        // Assertions
+        assertEquals(1, errors.size());
+        assertEquals(0, errors.get(0).getIndex());
+        assertTrue(bookRepository.findById(fresh.getId()).isPresent());
+        assertEquals(0L, bookRepository.findById(fresh.getId()).get().getVersion());
+    }
+
+    @Test
+    void testSearchText_ranksTitleMatchesFirst() {
+        BookDAO byAuthor = getBookDAOTestObj();
+        byAuthor.setTitle("Another Story");
+        byAuthor.setAuthor("Ursula Dune");
+        byAuthor.setIsbn("5555555555");
+        BookDAO byTitle = getBookDAOTestObj();
+        byTitle.setTitle("Dune");
+        byTitle.setIsbn("6666666666");
+        bookRepository.saveAll(List.of(byAuthor, byTitle));
+
+        List<BookDAO> found = bookRepository.searchText("dune", 0, 10);
+
+        // Assertions
+        assertEquals(List.of("Dune", "Another Story"), found.stream().map(BookDAO::getTitle).toList());
+    }
+
+    @Test
+    void testSearchPrefix_ignoresCaseAndEscapesRegex() {
+        BookDAO other = getBookDAOTestObj();
+        other.setTitle("C++ Primer");
+        other.setIsbn("5555555555");
+        bookRepository.save(other);
+
+        // Assertions
+        assertEquals(List.of(book.getId()), bookRepository.searchPrefix("TEST b", 0, 10).stream().map(BookDAO::getId).toList());
+        assertEquals(List.of(other.getId()), bookRepository.searchPrefix("c++", 0, 10).stream().map(BookDAO::getId).toList());
+        assertEquals(2, bookRepository.searchPrefix("author a", 0, 10).size());
+    }
+
+    @Test
+    void testBackfillSearchKeys() {
+        BookDAO other = getBookDAOTestObj();
+        other.setIsbn("5555555555");
+        other = bookRepository.save(other);
+        bookRepository.updateFields(book.getId(), null, new Update().unset("titleKey").unset("authorKey"));
+        // written as an earlier $toLower backfill would have: untrimmed and with the accented capital kept
+        bookRepository.updateFields(other.getId(), null, new Update()
+                .set("title", " Émile").set("titleKey", " Émile"));
+
+        long updated = bookRepository.backfillSearchKeys();
+
+        // Assertions
+        assertEquals(2, updated);
+        assertEquals("test book", bookRepository.findById(book.getId()).orElseThrow().getTitleKey());
+        assertEquals("émile", bookRepository.findById(other.getId()).orElseThrow().getTitleKey());
+        assertEquals(0, bookRepository.backfillSearchKeys());
+    }
+
+    @Test
+    void testUpdateFields_setsLastModified() {
+        Instant before = BookHelper.now();
+
+        BookDAO updated = bookRepository.updateFields(book.getId(), null, new Update().set("title", "New Title")).orElseThrow();
+
+        // Assertions
+        assertFalse(updated.getLastModified().isBefore(before));
+    }
+
+    @Test
+    void testFindModified_pagesByModificationTimeThenId() {
+        BookDAO other = getBookDAOTestObj();
+        other.setIsbn("5555555555");
+        bookRepository.save(other);
+        Instant modified = Instant.parse("2025-01-01T00:00:00Z");
+        mongoTemplate.updateMulti(new Query(), new Update().set("lastModified", modified), BookDAO.class);
+        Instant until = modified.plusSeconds(1);
+
+        List<BookDAO> first = bookRepository.findModified(modified, null, until, 1);
+        List<BookDAO> second = bookRepository.findModified(modified, first.get(0).getId(), until, 1);
+
+        // Assertions
+        assertEquals(List.of(book.getId(), other.getId()).stream().sorted().toList(),
+                List.of(first.get(0).getId(), second.get(0).getId()));
+        assertTrue(bookRepository.findModified(modified, second.get(0).getId(), until, 1).isEmpty());
+        assertTrue(bookRepository.findModified(until, null, until.plusSeconds(1), 10).isEmpty());
+    }
+
+    @Test
+    void testRecordDeletions_upsertsOneTombstonePerBook() {
+        Instant from = BookHelper.now();
+        String first = new ObjectId().toHexString();
+        String second = new ObjectId().toHexString();
+
+        bookRepository.recordDeletions(List.of(first, second));
+        bookRepository.recordDeletions(List.of(first));
+
+        // Assertions
+        assertEquals(Set.of(first, second), Set.copyOf(bookRepository.findDeletedIds(from, BookHelper.now().plusSeconds(1))));
+        assertTrue(bookRepository.findDeletedIds(from.minusSeconds(60), from).isEmpty());
+    }
+
+    @Test
+    void testFindPage_sortedKeysetWalksWholeListingOnce() {
+        for (int i = 0; i < 4; i++) {
+            BookDAO other = getBookDAOTestObj();
+            other.setIsbn("555555555" + i);
+            other.setPublishedDate(LocalDate.of(2020 + i % 2, 1, 1));
+            bookRepository.save(other);
+        }
+        BookQuery filter = new BookQuery();
+        filter.setAuthor("AUTHOR a");
+
+        List<String> seen = new ArrayList<>();
+        BookPageRequest request = new BookPageRequest(filter, BookSortField.PUBLISHED_DATE, true, null, null, 2, null);
+        List<BookDAO> page = bookRepository.findPage(request);
+        while (!page.isEmpty()) {
+            page.forEach(found -> seen.add(found.getId()));
+            BookDAO last = page.get(page.size() - 1);
+            request = new BookPageRequest(filter, BookSortField.PUBLISHED_DATE, true, last.getPublishedDate(), last.getId(), 2, null);
+            page = bookRepository.findPage(request);
+        }
+
+        // Assertions
+        assertEquals(5, seen.size());
+        assertEquals(5, seen.stream().distinct().count());
+        assertEquals(book.getId(), seen.get(0));
+    }
+
+    @Test
+    void testFindPage_projectsRequestedFieldsAndSortKey() {
+        BookPageRequest request = new BookPageRequest(new BookQuery(), BookSortField.PUBLISHED_DATE, false,
+                null, null, 10, Set.of("id", "title"));
+
+        BookDAO found = bookRepository.findPage(request).get(0);
+
+        // Assertions
+        assertEquals(book.getId(), found.getId());
+        assertEquals("Test Book", found.getTitle());
+        assertEquals(book.getPublishedDate(), found.getPublishedDate());
+        assertNull(found.getIsbn());
+        assertNull(found.getAuthor());
+    }
+
+    @Test
+    void testFindPage_everyFilterAndSortUsesAnIndex() {
+        List<BookQuery> filters = new ArrayList<>();
+        filters.add(new BookQuery());
+        BookQuery byAuthor = new BookQuery();
+        byAuthor.setAuthor("Author A");
+        filters.add(byAuthor);
+        BookQuery byTitle = new BookQuery();
+        byTitle.setTitleContains("book");
+        filters.add(byTitle);
+        BookQuery byDate = new BookQuery();
+        byDate.setPublishedFrom(LocalDate.of(2020, 1, 1));
+        byDate.setPublishedTo(LocalDate.of(2024, 12, 31));
+        filters.add(byDate);
+        BookQuery byAuthorAndDate = new BookQuery();
+        byAuthorAndDate.setAuthor("Author A");
+        byAuthorAndDate.setPublishedFrom(LocalDate.of(2020, 1, 1));
+        filters.add(byAuthorAndDate);
+
+        String afterId = new ObjectId().toHexString();
+        for (BookQuery filter : filters) {
+            for (BookSortField sortField : BookSortField.values()) {
+                Object afterValue = sortField == BookSortField.PUBLISHED_DATE ? LocalDate.of(2022, 1, 1) : "m";
+                for (boolean descending : new boolean[]{false, true}) {
+                    assertIndexed(new BookPageRequest(filter, sortField, descending, null, null, 51, null));
+                    assertIndexed(new BookPageRequest(filter, sortField, descending,
+                            sortField == BookSortField.ID ? null : afterValue, afterId, 51, null));
+                }
+            }
+        }
+    }
+
+    private void assertIndexed(BookPageRequest request) {
+        Query query = BookListQueries.page(request);
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(BookDAO.class);
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        Document explain = mongoTemplate.getCollection(mongoTemplate.getCollectionName(BookDAO.class))
+                .find(queryMapper.getMappedObject(query.getQueryObject(), entity))
+                .sort(queryMapper.getMappedSort(query.getSortObject(), entity))
+                .limit(query.getLimit())
+                .explain();
+        String winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+
+        // Assertions
+        assertFalse(winningPlan.contains("COLLSCAN"), () -> request + " is not indexed: " + winningPlan);
+        assertTrue(winningPlan.contains("IXSCAN"), () -> request + " is not indexed: " + winningPlan);
+    }
+
     private BookDAO getBookDAOTestObj() {
         BookDAO book = new BookDAO();
         book.setTitle("Test Book");
@@ -0,0 +1,102 @@
+package com.usmobile.demo.repository;
+
+import com.usmobile.demo.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MongoConcurrencyLimiterTest {
+
+    interface Calls {
+        String call();
+
+        Stream<String> stream();
+    }
+
+    @Test
+    void testPermitReleasedAfterCall() {
+        MongoConcurrencyLimiter limiter = new MongoConcurrencyLimiter(1, 100);
+        Calls calls = limited(limiter, new Calls() {
+            public String call() { return "ok"; }
+            public Stream<String> stream() { return Stream.of("a"); }
+        });
+
+        assertEquals("ok", calls.call());
+        assertEquals("ok", calls.call());
+        assertEquals(1, limiter.availablePermits());
+    }
+
+    @Test
+    void testPermitReleasedWhenCallFails() {
+        MongoConcurrencyLimiter limiter = new MongoConcurrencyLimiter(1, 100);
+        Calls calls = limited(limiter, new Calls() {
+            public String call() { throw new IllegalStateException("boom"); }
+            public Stream<String> stream() { return Stream.empty(); }
+        });
+
+        assertThrows(IllegalStateException.class, calls::call);
+        assertEquals(1, limiter.availablePermits());
+    }
+
+    @Test
+    void testStreamHoldsPermitUntilClosed() {
+        MongoConcurrencyLimiter limiter = new MongoConcurrencyLimiter(1, 50);
+        Calls calls = limited(limiter, new Calls() {
+            public String call() { return "ok"; }
+            public Stream<String> stream() { return Stream.of("a", "b"); }
+        });
+
+        try (Stream<String> stream = calls.stream()) {
+            assertEquals(0, limiter.availablePermits());
+            assertThrows(ServiceUnavailableException.class, calls::call);
+            assertEquals(2, stream.count());
+        }
+        assertEquals(1, limiter.availablePermits());
+    }
+
+    @Test
+    void testBurstWaitsForPermit() throws Exception {
+        MongoConcurrencyLimiter limiter = new MongoConcurrencyLimiter(1, 5000);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Calls calls = limited(limiter, new Calls() {
+            public String call() {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "ok";
+            }
+            public Stream<String> stream() { return Stream.empty(); }
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = executor.submit(calls::call);
+            entered.await();
+            Future<String> second = executor.submit(calls::call);
+            release.countDown();
+
+            assertEquals("ok", first.get());
+            assertEquals("ok", second.get());
+        }
+        assertEquals(1, limiter.availablePermits());
+    }
+
+    private Calls limited(MongoConcurrencyLimiter limiter, Calls target) {
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTarget(target);
+        proxyFactory.addInterface(Calls.class);
+        proxyFactory.addAdvice(limiter);
+        return (Calls) proxyFactory.getProxy();
+    }
+}
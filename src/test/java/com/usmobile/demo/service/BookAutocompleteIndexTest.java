@@ -0,0 +1,110 @@
+package com.usmobile.demo.service;
+
+import com.usmobile.demo.core.BookDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookAutocompleteIndexTest {
+
+    @Test
+    void testComplete_ranksByBookCountThenAlphabetically() {
+        BookAutocompleteIndex index = new BookAutocompleteIndex();
+        index.load(Stream.of(book("1", "Dune", "Frank Herbert"), book("2", "Dune Messiah", "Frank Herbert"),
+                book("3", "Foundation", "Isaac Asimov")));
+
+        // Assertions
+        assertEquals(List.of("Dune", "Dune Messiah"), index.complete("DU", 10));
+        assertEquals(List.of("Frank Herbert", "Foundation"), index.complete("f", 10));
+        assertEquals(List.of("Frank Herbert"), index.complete("f", 1));
+        assertEquals(List.of(), index.complete(" ", 10));
+    }
+
+    @Test
+    void testComplete_matchesFullRankingForBroadAndSelectivePrefixes() {
+        BookAutocompleteIndex index = new BookAutocompleteIndex();
+        Random random = new Random(42);
+        List<BookDTO> catalog = IntStream.range(0, 2000)
+                .mapToObj(n -> book(Integer.toString(n), "Title " + random.nextInt(500), "Author " + random.nextInt(40)))
+                .toList();
+        index.load(catalog.stream());
+
+        for (String prefix : List.of("t", "title 4", "title 42", "a", "author 3", "x")) {
+            Map<String, Long> books = catalog.stream()
+                    .flatMap(book -> Stream.of(book.getTitle(), book.getAuthor()))
+                    .filter(text -> text.toLowerCase(Locale.ROOT).startsWith(prefix))
+                    .collect(Collectors.groupingBy(text -> text, Collectors.counting()));
+            List<String> expected = books.keySet().stream()
+                    .sorted(Comparator.comparing((String text) -> -books.get(text))
+                            .thenComparing(text -> text.toLowerCase(Locale.ROOT)))
+                    .limit(10)
+                    .toList();
+
+            // Assertions
+            assertEquals(expected, index.complete(prefix, 10), prefix);
+        }
+    }
+
+    @Test
+    void testSharedCompletionKeptUntilLastBookRemoved() {
+        BookAutocompleteIndex index = new BookAutocompleteIndex();
+        index.load(Stream.of(book("1", "Dune", "Frank Herbert"), book("2", "Dune Messiah", "Frank Herbert")));
+
+        index.onBookChanged(BookChangedEvent.deleted("1"));
+        assertEquals(List.of("Frank Herbert"), index.complete("frank", 10));
+
+        index.onBookChanged(BookChangedEvent.deleted("2"));
+        // Assertions
+        assertEquals(List.of(), index.complete("frank", 10));
+        assertEquals(0, index.stats().completions());
+        assertEquals(0, index.stats().books());
+    }
+
+    @Test
+    void testLoadDoesNotOverwriteNewerChanges() {
+        BookAutocompleteIndex index = new BookAutocompleteIndex();
+
+        index.load(Stream.of(book("1", "Old Title", "Author"), book("2", "Deleted", "Author")).peek(loaded -> {
+            if (loaded.getId().equals("1")) {
+                index.onBookChanged(BookChangedEvent.updated(book("1", "New Title", "Author")));
+                index.onBookChanged(BookChangedEvent.deleted("2"));
+            }
+        }));
+
+        // Assertions
+        assertEquals(List.of("New Title"), index.complete("new", 10));
+        assertEquals(List.of(), index.complete("old", 10));
+        assertEquals(List.of(), index.complete("deleted", 10));
+        assertTrue(index.stats().loaded());
+    }
+
+    @Test
+    void testStatsReportFootprint() {
+        BookAutocompleteIndex index = new BookAutocompleteIndex();
+        index.load(Stream.of(book("1", "Dune", "Frank Herbert")));
+
+        BookAutocompleteIndex.Stats stats = index.stats();
+
+        // Assertions
+        assertEquals(1, stats.books());
+        assertEquals(2, stats.completions());
+        assertTrue(stats.estimatedBytes() > 0);
+    }
+
+    private BookDTO book(String id, String title, String author) {
+        BookDTO book = new BookDTO();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        return book;
+    }
+}
@@ -0,0 +1,115 @@
+package com.usmobile.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookChangeFeedTest {
+
+    private ScheduledExecutorService sender;
+    private BookChangeFeed feed;
+
+    @BeforeEach
+    void setup() {
+        sender = Executors.newSingleThreadScheduledExecutor();
+        feed = new BookChangeFeed(new SimpleMeterRegistry(), 16, Duration.ofMinutes(1), Duration.ofMinutes(1),
+                false, sender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.close();
+    }
+
+    @Test
+    void testReplayQueuedBeforeBroadcastSendsEachChangeOnce() throws Exception {
+        RecordingEmitter live = new RecordingEmitter();
+        feed.subscribe(null, live);
+        feed.onBookChanged(BookChangedEvent.deleted("1"));
+        String firstId = live.awaitIds(1).getFirst();
+
+        // hold the sender thread so the replay is queued before the broadcast of a change already in the buffer
+        CountDownLatch release = new CountDownLatch(1);
+        sender.execute(() -> awaitQuietly(release));
+        RecordingEmitter resumed = new RecordingEmitter();
+        feed.subscribe(firstId, resumed);
+        feed.onBookChanged(BookChangedEvent.deleted("2"));
+        release.countDown();
+
+        // Assertions
+        String secondId = live.awaitIds(2).get(1);
+        drain();
+        assertEquals(List.of(secondId), resumed.ids);
+    }
+
+    @Test
+    void testReplaySendsChangesAfterLastEventId() throws Exception {
+        RecordingEmitter live = new RecordingEmitter();
+        feed.subscribe(null, live);
+        feed.onBookChanged(BookChangedEvent.deleted("1"));
+        feed.onBookChanged(BookChangedEvent.deleted("2"));
+        feed.onBookChanged(BookChangedEvent.deleted("3"));
+        List<String> ids = live.awaitIds(3);
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        feed.subscribe(ids.getFirst(), resumed);
+        drain();
+
+        // Assertions
+        assertEquals(ids.subList(1, 3), resumed.ids);
+    }
+
+    private void drain() throws Exception {
+        sender.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Emitter that records the IDs of the events it is sent instead of writing them to a response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private static final Pattern ID = Pattern.compile("id:(\\S+)");
+
+        private final List<String> ids = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(String.class::isInstance)
+                    .map(data -> ID.matcher((String) data))
+                    .filter(Matcher::find)
+                    .forEach(matcher -> ids.add(matcher.group(1)));
+        }
+
+        List<String> awaitIds(int count) throws InterruptedException {
+            for (int i = 0; i < 250 && ids.size() < count; i++) {
+                Thread.sleep(20);
+            }
+            assertEquals(count, ids.size(), ids.toString());
+            return List.copyOf(ids);
+        }
+    }
+}
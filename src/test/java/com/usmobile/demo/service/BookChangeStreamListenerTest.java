@@ -0,0 +1,152 @@
+package com.usmobile.demo.service;
+
+import com.mongodb.client.model.changestream.OperationType;
+import com.usmobile.demo.config.CacheConfig;
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.mapper.BookMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookChangeStreamListenerTest {
+
+    private MongoTemplate mongoTemplate;
+    private ObjectProvider<BookPageResponseCache> pageCache;
+    private ConcurrentMapCacheManager cacheManager;
+    private List<BookChangedEvent> events;
+    private BookChangeStreamListener listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        mongoTemplate = Mockito.mock(MongoTemplate.class);
+        pageCache = Mockito.mock(ObjectProvider.class);
+        // same conversions Spring Boot configures, so LocalDate is read as a simple type
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.BOOKS_BY_ID, CacheConfig.BOOK_IDS_BY_ISBN);
+        events = new ArrayList<>();
+        listener = new BookChangeStreamListener(mongoTemplate, new BookMapper(), cacheManager,
+                pageCache, event -> events.add((BookChangedEvent) event),
+                "test", Duration.ofSeconds(1), Duration.ofSeconds(1));
+    }
+
+    @Test
+    void testUpdateFromAnotherInstanceEvictsCachedBookAndIsRepublished() {
+        cacheManager.getCache(CacheConfig.BOOKS_BY_ID).put("1", new BookDTO());
+        Document stored = new Document("_id", "1")
+                .append("title", "New Title")
+                .append("author", "Author")
+                .append("isbn", "1234567890")
+                .append("publishedDate", Date.from(LocalDate.of(2020, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant()))
+                .append("version", 3L);
+
+        listener.onChange(OperationType.UPDATE, "1", stored);
+
+        // Assertions
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS_BY_ID).get("1"));
+        assertEquals(1, events.size());
+        assertEquals(BookChangedEvent.Type.UPDATED, events.get(0).type());
+        assertEquals(BookChangedEvent.Origin.CHANGE_STREAM, events.get(0).origin());
+        assertEquals("New Title", events.get(0).book().getTitle());
+        assertEquals(LocalDate.of(2020, 1, 1), events.get(0).book().getPublishedDate());
+        assertEquals(3L, events.get(0).book().getVersion());
+    }
+
+    @Test
+    void testDeleteAndVanishedUpdateArePublishedAsDeletes() {
+        listener.onChange(OperationType.DELETE, "1", null);
+        listener.onChange(OperationType.UPDATE, "2", null);
+
+        // Assertions
+        assertEquals(List.of(BookChangedEvent.deleted("1").fromChangeStream(),
+                BookChangedEvent.deleted("2").fromChangeStream()), events);
+    }
+
+    @Test
+    void testOwnWriteReachesTheChangeFeedOnce() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BookChangeFeed feed = new BookChangeFeed(meterRegistry, 16, Duration.ofMinutes(1), Duration.ofMinutes(1), true);
+        BookChangeStreamListener streamListener = new BookChangeStreamListener(mongoTemplate, new BookMapper(),
+                cacheManager, pageCache, event -> feed.onBookChanged((BookChangedEvent) event),
+                "test", Duration.ofSeconds(1), Duration.ofSeconds(1));
+        try {
+            // the service publishes its own delete, then the same delete comes back through the stream
+            feed.onBookChanged(BookChangedEvent.deleted("1"));
+            streamListener.onChange(OperationType.DELETE, "1", null);
+
+            // Assertions
+            assertEquals(1.0, meterRegistry.get("books.changes.published").counter().count());
+        } finally {
+            feed.close();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailingListenerDoesNotStopTheStream() {
+        BookChangeStreamListener failing = new BookChangeStreamListener(mongoTemplate, new BookMapper(),
+                cacheManager, pageCache, event -> {
+                    throw new IllegalStateException("listener failed");
+                }, "test", Duration.ofSeconds(1), Duration.ofSeconds(1));
+        cacheManager.getCache(CacheConfig.BOOKS_BY_ID).put("1", new BookDTO());
+
+        assertDoesNotThrow(() -> failing.onChange(OperationType.DELETE, "1", null));
+
+        // Assertions
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS_BY_ID).get("1"));
+        verify(pageCache).ifAvailable(any(Consumer.class));
+    }
+
+    @Test
+    void testInvalidateAllDropsCachedBooks() {
+        cacheManager.getCache(CacheConfig.BOOKS_BY_ID).put("1", new BookDTO());
+        cacheManager.getCache(CacheConfig.BOOK_IDS_BY_ISBN).put("1234567890", "1");
+
+        listener.invalidateAll();
+
+        // Assertions
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS_BY_ID).get("1"));
+        assertNull(cacheManager.getCache(CacheConfig.BOOK_IDS_BY_ISBN).get("1234567890"));
+    }
+
+    @Test
+    void testIdOfDocumentKey() {
+        ObjectId id = new ObjectId();
+
+        // Assertions
+        assertEquals(id.toHexString(), BookChangeStreamListener.idOf(new BsonDocument("_id", new BsonObjectId(id))));
+        assertEquals("isbn-1", BookChangeStreamListener.idOf(new BsonDocument("_id", new BsonString("isbn-1"))));
+    }
+}
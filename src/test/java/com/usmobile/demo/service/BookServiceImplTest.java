@@ -0,0 +1,528 @@
+package com.usmobile.demo.service;
+
+import com.usmobile.demo.config.CacheConfig;
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.core.BookPageDTO;
+import com.usmobile.demo.core.BookQuery;
+import com.usmobile.demo.core.BookSearchPageDTO;
+import com.usmobile.demo.core.BookSyncDTO;
+import com.usmobile.demo.core.BookWriteDTO;
+import com.usmobile.demo.core.BookWriteStatus;
+import com.usmobile.demo.entity.BookDAO;
+import com.usmobile.demo.exception.DuplicateIsbnException;
+import com.usmobile.demo.exception.EntityNotFoundException;
+import com.usmobile.demo.exception.PreconditionFailedException;
+import com.usmobile.demo.mapper.BookMapper;
+import com.usmobile.demo.repository.BookPageRequest;
+import com.usmobile.demo.repository.BookRepositoryInterface;
+import com.usmobile.demo.repository.BookSortField;
+import com.usmobile.demo.util.BookHelper;
+import com.usmobile.demo.util.CursorHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import org.apache.coyote.BadRequestException;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookServiceImplTest {
+
+    private BookRepositoryInterface bookRepository;
+    private ConcurrentMapCacheManager cacheManager;
+    private BookAutocompleteIndex autocompleteIndex;
+    private BookWriteBehindQueue writeBehindQueue;
+    private List<BookChangedEvent> events;
+    private BookServiceImpl bookService;
+
+    @BeforeAll
+    static void setupValidator() {
+        new BookHelper(Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @BeforeEach
+    void setup() {
+        bookRepository = Mockito.mock(BookRepositoryInterface.class);
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.BOOKS_BY_ID, CacheConfig.BOOK_IDS_BY_ISBN,
+                CacheConfig.BOOK_WRITES);
+        autocompleteIndex = new BookAutocompleteIndex();
+        events = new CopyOnWriteArrayList<>();
+        ApplicationEventPublisher eventPublisher = event -> {
+            events.add((BookChangedEvent) event);
+            autocompleteIndex.onBookChanged((BookChangedEvent) event);
+        };
+        writeBehindQueue = new BookWriteBehindQueue(bookRepository, new BookMapper(), cacheManager, eventPublisher,
+                new SimpleMeterRegistry(), 10000, 500, Duration.ofMillis(200));
+        bookService = new BookServiceImpl(bookRepository, new BookMapper(), cacheManager,
+                autocompleteIndex, eventPublisher, writeBehindQueue, 500, 10000, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testFindBookById_servesRepeatedReadsFromCache() {
+        when(bookRepository.findById("1")).thenReturn(Optional.of(getBookDAOTestObj()));
+
+        BookDTO first = bookService.findBookById("1");
+        BookDTO second = bookService.findBookById("1");
+
+        // Assertions
+        assertEquals("Test Book", first.getTitle());
+        assertSame(first, second);
+        verify(bookRepository, times(1)).findById("1");
+    }
+
+    @Test
+    void testFindBookById_projectsCachedBookWithoutChangingIt() throws BadRequestException {
+        when(bookRepository.findById("1")).thenReturn(Optional.of(getBookDAOTestObj()));
+
+        BookDTO projected = bookService.findBookById("1", "title, isbn");
+        BookDTO full = bookService.findBookById("1");
+
+        // Assertions
+        assertEquals("1", projected.getId());
+        assertEquals("Test Book", projected.getTitle());
+        assertEquals("1234567890123", projected.getIsbn());
+        assertNull(projected.getAuthor());
+        assertNull(projected.getPublishedDate());
+        assertEquals("Author A", full.getAuthor());
+        assertThrows(BadRequestException.class, () -> bookService.findBookById("1", "title,price"));
+        verify(bookRepository, times(1)).findById("1");
+    }
+
+    @Test
+    void testGetBooksPage_projectsRequestedFields() throws BadRequestException {
+        when(bookRepository.findPage(any(BookPageRequest.class))).thenReturn(List.of(getBookDAOTestObj()));
+        BookQuery query = new BookQuery();
+        query.setFields("title");
+
+        BookPageDTO page = bookService.getBooksPage(query, 10, null);
+
+        // Assertions
+        ArgumentCaptor<BookPageRequest> request = ArgumentCaptor.forClass(BookPageRequest.class);
+        verify(bookRepository).findPage(request.capture());
+        assertEquals(Set.of("id", "title"), request.getValue().fields());
+        assertEquals("Test Book", page.getBooks().get(0).getTitle());
+        assertNull(page.getBooks().get(0).getIsbn());
+    }
+
+    @Test
+    void testFindBookById_notFoundIsNotCached() {
+        when(bookRepository.findById("1")).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> bookService.findBookById("1"));
+        assertThrows(EntityNotFoundException.class, () -> bookService.findBookById("1"));
+
+        // Assertions
+        verify(bookRepository, times(2)).findById("1");
+    }
+
+    @Test
+    void testFindBookById_evictionDuringLoadWins() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        when(bookRepository.findById("1")).thenAnswer(invocation -> {
+            loading.countDown();
+            // give the concurrent eviction time to reach the cache while the stale book is being read
+            Thread.sleep(200);
+            return Optional.of(getBookDAOTestObj());
+        });
+
+        CompletableFuture<BookDTO> read = CompletableFuture.supplyAsync(() -> bookService.findBookById("1"));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        cacheManager.getCache(CacheConfig.BOOKS_BY_ID).evict("1");
+
+        // Assertions
+        assertEquals("Test Book", read.get(5, TimeUnit.SECONDS).getTitle());
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS_BY_ID).get("1"));
+    }
+
+    @Test
+    void testDeleteBook_evictsCachedBook() {
+        when(bookRepository.findById("1")).thenReturn(Optional.of(getBookDAOTestObj()));
+        when(bookRepository.removeById("1")).thenReturn(1L);
+        bookService.findBookById("1");
+
+        bookService.deleteBook("1");
+
+        // Assertions
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS_BY_ID).get("1"));
+        verify(bookRepository, times(1)).removeById("1");
+        verify(bookRepository, times(1)).recordDeletions(List.of("1"));
+    }
+
+    @Test
+    void testDeleteBook_notFound() {
+        when(bookRepository.removeById("1")).thenReturn(0L);
+
+        assertThrows(EntityNotFoundException.class, () -> bookService.deleteBook("1"));
+        verify(bookRepository, never()).recordDeletions(any());
+    }
+
+    @Test
+    void testDeleteBooks_singleCommandAndEviction() throws BadRequestException {
+        when(bookRepository.findById("1")).thenReturn(Optional.of(getBookDAOTestObj()));
+        when(bookRepository.removeByIds(List.of("1", "2"))).thenReturn(1L);
+        bookService.findBookById("1");
+
+        long deleted = bookService.deleteBooks(List.of("1", "2"));
+
+        // Assertions
+        assertEquals(1L, deleted);
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS_BY_ID).get("1"));
+        verify(bookRepository, times(1)).recordDeletions(List.of("1", "2"));
+    }
+
+    @Test
+    void testDeleteBook_tombstoneFailureStillPublishesEvent() {
+        when(bookRepository.removeById("1")).thenReturn(1L);
+        doThrow(new RuntimeException("write error")).when(bookRepository).recordDeletions(List.of("1"));
+
+        // Assertions
+        assertTrue(bookService.deleteBook("1"));
+        assertEquals(List.of(BookChangedEvent.deleted("1")), events);
+    }
+
+    @Test
+    void testDeleteBooks_emptyList() {
+        assertThrows(BadRequestException.class, () -> bookService.deleteBooks(List.of()));
+    }
+
+    @Test
+    void testFindBookByIsbn_servesRepeatedReadsFromCache() {
+        when(bookRepository.findByIsbn("1234567890123")).thenReturn(Optional.of(getBookDAOTestObj()));
+
+        BookDTO first = bookService.findBookByIsbn("1234567890123");
+        BookDTO second = bookService.findBookByIsbn("1234567890123");
+
+        // Assertions
+        assertSame(first, second);
+        verify(bookRepository, times(1)).findByIsbn("1234567890123");
+    }
+
+    @Test
+    void testFindBookByIsbn_ignoresStaleEntryAfterIsbnChange() {
+        when(bookRepository.findByIsbn("1234567890123")).thenReturn(Optional.of(getBookDAOTestObj()));
+        bookService.findBookByIsbn("1234567890123");
+
+        // another path caches the book under its new ISBN while the old ISBN entry is still present
+        BookDTO renumbered = new BookMapper().toCore(getBookDAOTestObj());
+        renumbered.setIsbn("9999999999");
+        cacheManager.getCache(CacheConfig.BOOKS_BY_ID).put("1", renumbered);
+        when(bookRepository.findByIsbn("1234567890123")).thenReturn(Optional.empty());
+
+        // Assertions
+        assertThrows(EntityNotFoundException.class, () -> bookService.findBookByIsbn("1234567890123"));
+        assertNull(cacheManager.getCache(CacheConfig.BOOK_IDS_BY_ISBN).get("1234567890123"));
+    }
+
+    @Test
+    void testUpdateBook_setsOnlyProvidedFieldsAndCachesResult() throws BadRequestException {
+        BookDAO updated = getBookDAOTestObj();
+        updated.setTitle("New Title");
+        when(bookRepository.updateFields(eq("1"), isNull(), any(Update.class))).thenReturn(Optional.of(updated));
+        BookDTO request = new BookDTO();
+        request.setId("1");
+        request.setTitle("New Title");
+
+        BookDTO result = bookService.updateBook(request);
+
+        // Assertions
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bookRepository).updateFields(eq("1"), isNull(), update.capture());
+        assertEquals(new Document("title", "New Title").append("titleKey", "new title"),
+                update.getValue().getUpdateObject().get("$set"));
+        assertEquals("New Title", result.getTitle());
+        assertSame(result, bookService.findBookById("1"));
+        verify(bookRepository, never()).findById("1");
+    }
+
+    @Test
+    void testUpdateBook_emptyRequest() {
+        BookDTO request = new BookDTO();
+        request.setId("1");
+        request.setVersion(3L);
+
+        assertThrows(BadRequestException.class, () -> bookService.updateBook(request));
+        verify(bookRepository, never()).updateFields(any(), any(), any());
+    }
+
+    @Test
+    void testUpdateBookAsync_validatesBeforeQueueing() throws BadRequestException {
+        BookDTO empty = new BookDTO();
+        empty.setId("1");
+        BookDTO invalid = new BookDTO();
+        invalid.setId("1");
+        invalid.setIsbn("123");
+        BookDTO valid = new BookDTO();
+        valid.setId("1");
+        valid.setAuthor("New Author");
+
+        assertThrows(BadRequestException.class, () -> bookService.updateBookAsync(empty));
+        assertThrows(ConstraintViolationException.class, () -> bookService.updateBookAsync(invalid));
+        BookWriteDTO write = bookService.updateBookAsync(valid);
+
+        assertEquals(1, writeBehindQueue.depth());
+        assertEquals(BookWriteStatus.QUEUED, bookService.findWrite(write.getTrackingId()).getStatus());
+        assertThrows(EntityNotFoundException.class, () -> bookService.findWrite("unknown"));
+        verify(bookRepository, never()).updateFields(any(), any(), any());
+    }
+
+    @Test
+    void testUpdateBook_invalidIsbnRejectedBeforeWrite() {
+        BookDTO request = new BookDTO();
+        request.setId("1");
+        request.setIsbn("123");
+
+        assertThrows(ConstraintViolationException.class, () -> bookService.updateBook(request));
+        verify(bookRepository, never()).updateFields(any(), any(), any());
+    }
+
+    @Test
+    void testUpdateBook_notFound() {
+        when(bookRepository.updateFields(eq("1"), isNull(), any(Update.class))).thenReturn(Optional.empty());
+        BookDTO request = new BookDTO();
+        request.setId("1");
+        request.setTitle("New Title");
+
+        assertThrows(EntityNotFoundException.class, () -> bookService.updateBook(request));
+    }
+
+    @Test
+    void testUpdateBook_versionMismatchEvictsCachedBook() {
+        when(bookRepository.findById("1")).thenReturn(Optional.of(getBookDAOTestObj()));
+        bookService.findBookById("1");
+        when(bookRepository.updateFields(eq("1"), eq(3L), any(Update.class))).thenReturn(Optional.empty());
+        when(bookRepository.existsById("1")).thenReturn(true);
+        BookDTO request = new BookDTO();
+        request.setId("1");
+        request.setTitle("New Title");
+
+        // Assertions
+        assertThrows(PreconditionFailedException.class, () -> bookService.updateBook(request, 3L));
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS_BY_ID).get("1"));
+    }
+
+    @Test
+    void testDeleteBook_conditionalOnVersion() {
+        when(bookRepository.removeByIdAndVersion("1", 3L)).thenReturn(0L);
+        when(bookRepository.existsById("1")).thenReturn(true);
+        when(bookRepository.removeByIdAndVersion("1", 4L)).thenReturn(1L);
+
+        // Assertions
+        assertThrows(PreconditionFailedException.class, () -> bookService.deleteBook("1", 3L));
+        assertTrue(bookService.deleteBook("1", 4L));
+        verify(bookRepository, never()).removeById("1");
+    }
+
+    @Test
+    void testUpdateBook_duplicateIsbn() {
+        when(bookRepository.updateFields(eq("1"), isNull(), any(Update.class))).thenThrow(new DuplicateKeyException("E11000"));
+        BookDTO request = new BookDTO();
+        request.setId("1");
+        request.setIsbn("5555555555");
+
+        assertThrows(DuplicateIsbnException.class, () -> bookService.updateBook(request));
+    }
+
+    @Test
+    void testGetBooksPage_sortedCursorResumesAfterLastBook() throws BadRequestException {
+        BookDAO first = getBookDAOTestObj();
+        BookDAO second = getBookDAOTestObj();
+        second.setId("6650f1c2a1b2c3d4e5f60718");
+        second.setPublishedDate(LocalDate.of(2023, 5, 1));
+        when(bookRepository.findPage(any(BookPageRequest.class))).thenReturn(List.of(first, second, getBookDAOTestObj()));
+        BookQuery query = new BookQuery();
+        query.setAuthor("Author A");
+        query.setSort("-publishedDate");
+
+        BookPageDTO page = bookService.getBooksPage(query, 2, null);
+        bookService.getBooksPage(query, 2, page.getNextCursor());
+
+        // Assertions
+        ArgumentCaptor<BookPageRequest> requests = ArgumentCaptor.forClass(BookPageRequest.class);
+        verify(bookRepository, times(2)).findPage(requests.capture());
+        BookPageRequest firstRequest = requests.getAllValues().get(0);
+        assertEquals(BookSortField.PUBLISHED_DATE, firstRequest.sortField());
+        assertTrue(firstRequest.descending());
+        assertEquals(3, firstRequest.limit());
+        assertNull(firstRequest.afterId());
+        BookPageRequest nextRequest = requests.getAllValues().get(1);
+        assertEquals(LocalDate.of(2023, 5, 1), nextRequest.afterValue());
+        assertEquals("6650f1c2a1b2c3d4e5f60718", nextRequest.afterId());
+        assertEquals(2, page.getBooks().size());
+    }
+
+    @Test
+    void testGetBooksPage_invalidParametersRejected() {
+        BookQuery unknownSort = new BookQuery();
+        unknownSort.setSort("isbn");
+        BookQuery invertedRange = new BookQuery();
+        invertedRange.setPublishedFrom(LocalDate.of(2024, 1, 1));
+        invertedRange.setPublishedTo(LocalDate.of(2023, 1, 1));
+        BookQuery byTitle = new BookQuery();
+        byTitle.setSort("title");
+        String publishedDateCursor = CursorHelper.encode("publishedDate", "2024-01-01", "6650f1c2a1b2c3d4e5f60718");
+
+        assertThrows(BadRequestException.class, () -> bookService.getBooksPage(unknownSort, 10, null));
+        assertThrows(BadRequestException.class, () -> bookService.getBooksPage(invertedRange, 10, null));
+        assertThrows(BadRequestException.class, () -> bookService.getBooksPage(byTitle, 10, publishedDateCursor));
+        assertThrows(BadRequestException.class, () -> bookService.getBooksPage(new BookQuery(), 0, null));
+        verify(bookRepository, never()).findPage(any());
+    }
+
+    @Test
+    void testSearchBooks_textModeFetchesOneExtraToDetectNextPage() throws BadRequestException {
+        when(bookRepository.searchText("dune", 20L, 3)).thenReturn(List.of(getBookDAOTestObj(), getBookDAOTestObj(), getBookDAOTestObj()));
+
+        BookSearchPageDTO result = bookService.searchBooks("dune", "text", 10, 2);
+
+        // Assertions
+        assertEquals(2, result.getBooks().size());
+        assertTrue(result.isHasNext());
+        verify(bookRepository, never()).searchPrefix(anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testSearchBooks_prefixModeLastPage() throws BadRequestException {
+        when(bookRepository.searchPrefix("tes", 0L, 21)).thenReturn(List.of(getBookDAOTestObj()));
+
+        BookSearchPageDTO result = bookService.searchBooks("tes", "PREFIX", 0, 20);
+
+        // Assertions
+        assertEquals("Test Book", result.getBooks().get(0).getTitle());
+        assertFalse(result.isHasNext());
+    }
+
+    @Test
+    void testSearchBooks_invalidParametersRejected() {
+        assertThrows(BadRequestException.class, () -> bookService.searchBooks(" ", "TEXT", 0, 20));
+        assertThrows(BadRequestException.class, () -> bookService.searchBooks("dune", "FUZZY", 0, 20));
+        assertThrows(BadRequestException.class, () -> bookService.searchBooks("dune", "TEXT", -1, 20));
+        assertThrows(BadRequestException.class, () -> bookService.searchBooks("dune", "TEXT", 0, BookServiceImpl.MAX_PAGE_LIMIT + 1));
+        verify(bookRepository, never()).searchText(anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testAutocomplete_followsCreateUpdateAndDelete() throws BadRequestException {
+        BookDAO saved = getBookDAOTestObj();
+        when(bookRepository.save(any(BookDAO.class))).thenReturn(saved);
+        BookDTO newBook = new BookDTO();
+        newBook.setTitle("Test Book");
+        bookService.createBook(newBook);
+
+        assertEquals(List.of("Test Book"), bookService.autocomplete("test", 10));
+
+        BookDAO updated = getBookDAOTestObj();
+        updated.setTitle("Renamed");
+        when(bookRepository.updateFields(eq("1"), isNull(), any(Update.class))).thenReturn(Optional.of(updated));
+        BookDTO request = new BookDTO();
+        request.setId("1");
+        request.setTitle("Renamed");
+        bookService.updateBook(request);
+
+        assertEquals(List.of(), bookService.autocomplete("test", 10));
+        assertEquals(List.of("Renamed"), bookService.autocomplete("ren", 10));
+
+        when(bookRepository.removeById("1")).thenReturn(1L);
+        bookService.deleteBook("1");
+
+        // Assertions
+        assertEquals(List.of(), bookService.autocomplete("ren", 10));
+        assertEquals(List.of(), bookService.autocomplete("author", 10));
+    }
+
+    @Test
+    void testGetChangedBooks_lastPageListsDeletionsUpToCheckpoint() throws BadRequestException {
+        Instant since = BookHelper.now().minus(Duration.ofHours(1));
+        BookDAO changed = getBookDAOTestObj();
+        changed.setLastModified(since.plusSeconds(60));
+        when(bookRepository.findModified(eq(since), isNull(), any(), eq(11))).thenReturn(List.of(changed));
+        when(bookRepository.findDeletedIds(eq(since), any())).thenReturn(List.of("2"));
+
+        BookSyncDTO sync = bookService.getChangedBooks(since.toString(), 10, null);
+
+        // Assertions
+        assertEquals(List.of("1"), sync.getBooks().stream().map(BookDTO::getId).toList());
+        assertEquals(List.of("2"), sync.getDeletedIds());
+        assertNull(sync.getNextCursor());
+        assertTrue(sync.getCheckpoint().isBefore(Instant.now().minusSeconds(4)));
+        verify(bookRepository).findDeletedIds(since, sync.getCheckpoint());
+    }
+
+    @Test
+    void testGetChangedBooks_fullPageResumesAfterLastBookAndDefersDeletions() throws BadRequestException {
+        Instant since = BookHelper.now().minus(Duration.ofHours(1));
+        Instant modified = since.plusSeconds(60);
+        BookDAO first = getBookDAOTestObj();
+        first.setId("6650f0a0e4b0c1a2b3c4d5e6");
+        first.setLastModified(modified);
+        BookDAO second = getBookDAOTestObj();
+        second.setId("6650f0a0e4b0c1a2b3c4d5e7");
+        second.setLastModified(modified);
+        when(bookRepository.findModified(eq(since), isNull(), any(), eq(2))).thenReturn(List.of(first, second));
+
+        BookSyncDTO sync = bookService.getChangedBooks(since.toString(), 1, null);
+
+        // Assertions
+        assertEquals(1, sync.getBooks().size());
+        assertEquals(List.of(), sync.getDeletedIds());
+        assertNotNull(sync.getNextCursor());
+        verify(bookRepository, never()).findDeletedIds(any(), any());
+
+        bookService.getChangedBooks(since.toString(), 1, sync.getNextCursor());
+        verify(bookRepository).findModified(eq(modified), eq(first.getId()), any(), eq(2));
+        verify(bookRepository).findDeletedIds(eq(since), any());
+    }
+
+    @Test
+    void testGetChangedBooks_rejectsMalformedAndExpiredCheckpoints() {
+        String expired = Instant.now().minus(BookServiceImpl.TOMBSTONE_RETENTION).minusSeconds(60).toString();
+
+        // Assertions
+        assertThrows(BadRequestException.class, () -> bookService.getChangedBooks("yesterday", 10, null));
+        assertThrows(BadRequestException.class, () -> bookService.getChangedBooks(expired, 10, null));
+        assertThrows(BadRequestException.class, () -> bookService.getChangedBooks(Instant.now().toString(), 0, null));
+        assertThrows(BadRequestException.class, () -> bookService.getChangedBooks(Instant.now().toString(), 10,
+                CursorHelper.encode("title", "Dune", "6650f0a0e4b0c1a2b3c4d5e6")));
+        verify(bookRepository, never()).findModified(any(), any(), any(), anyInt());
+    }
+
+    private BookDAO getBookDAOTestObj() {
+        BookDAO book = new BookDAO();
+        book.setId("1");
+        book.setTitle("Test Book");
+        book.setAuthor("Author A");
+        book.setIsbn("1234567890123");
+        book.setPublishedDate(LocalDate.of(2024, 1, 1));
+        return book;
+    }
+}
@@ -0,0 +1,201 @@
+package com.usmobile.demo.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.usmobile.demo.config.CacheConfig;
+import com.usmobile.demo.core.BookDTO;
+import com.usmobile.demo.core.BookWriteDTO;
+import com.usmobile.demo.core.BookWriteStatus;
+import com.usmobile.demo.entity.BookDAO;
+import com.usmobile.demo.exception.TooManyRequestsException;
+import com.usmobile.demo.mapper.BookMapper;
+import com.usmobile.demo.repository.BookRepositoryInterface;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookWriteBehindQueueTest {
+
+    private BookRepositoryInterface bookRepository;
+    private ConcurrentMapCacheManager cacheManager;
+    private SimpleMeterRegistry meterRegistry;
+    private List<BookChangedEvent> events;
+
+    @BeforeEach
+    void setup() {
+        bookRepository = Mockito.mock(BookRepositoryInterface.class);
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.BOOKS_BY_ID, CacheConfig.BOOK_IDS_BY_ISBN,
+                CacheConfig.BOOK_WRITES);
+        meterRegistry = new SimpleMeterRegistry();
+        events = new ArrayList<>();
+    }
+
+    @Test
+    void testFlush_insertsCreatesInOneBulkWriteAndReportsEachOutcome() {
+        BookWriteBehindQueue queue = queue(100);
+        when(bookRepository.insertUnordered(anyList()))
+                .thenReturn(List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1)));
+
+        BookWriteDTO first = queue.enqueueCreate(book("1111111111"));
+        BookWriteDTO duplicate = queue.enqueueCreate(book("2222222222"));
+        BookWriteDTO third = queue.enqueueCreate(book("3333333333"));
+        assertEquals(3, queue.depth());
+        queue.flush();
+
+        // Assertions
+        verify(bookRepository, times(1)).insertUnordered(anyList());
+        assertEquals(0, queue.depth());
+        assertEquals(BookWriteStatus.APPLIED, queue.find(first.getTrackingId()).getStatus());
+        assertEquals(BookWriteStatus.DUPLICATE_ISBN, queue.find(duplicate.getTrackingId()).getStatus());
+        assertEquals("ISBN '2222222222' already exists", queue.find(duplicate.getTrackingId()).getMessage());
+        assertEquals(BookWriteStatus.APPLIED, queue.find(third.getTrackingId()).getStatus());
+        assertEquals(List.of(first.getBookId(), third.getBookId()),
+                events.stream().map(BookChangedEvent::id).toList());
+        assertEquals(1, meterRegistry.get("books.write_behind.flush").timer().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_appliesUpdatesOfTheSameBookInOrderAndReportsMissingBooks() {
+        BookWriteBehindQueue queue = queue(100);
+        BookDAO stored = new BookDAO();
+        stored.setId("1");
+        stored.setTitle("New Title");
+        stored.setAuthor("New Author");
+        stored.setIsbn("1111111111");
+        stored.setVersion(4L);
+        when(bookRepository.updateUnordered(anyList())).thenReturn(List.of());
+        when(bookRepository.findAllById(any())).thenReturn(List.of(stored));
+
+        Update titleUpdate = new Update().set("title", "New Title");
+        BookWriteDTO title = queue.enqueueUpdate("1", titleUpdate);
+        BookWriteDTO author = queue.enqueueUpdate("1", new Update().set("author", "New Author"));
+        BookWriteDTO missing = queue.enqueueUpdate("2", new Update().set("title", "Other"));
+        queue.flush();
+
+        // Assertions
+        ArgumentCaptor<List<Pair<String, Update>>> bulk = ArgumentCaptor.forClass(List.class);
+        verify(bookRepository, times(2)).updateUnordered(bulk.capture());
+        assertEquals(List.of("1", "2"), bulk.getAllValues().get(0).stream().map(Pair::getFirst).toList());
+        assertEquals(List.of("1"), bulk.getAllValues().get(1).stream().map(Pair::getFirst).toList());
+        assertEquals(new Document("author", "New Author"),
+                bulk.getAllValues().get(1).get(0).getSecond().getUpdateObject().get("$set"));
+        assertEquals(new Document("title", "New Title"), titleUpdate.getUpdateObject().get("$set"));
+        assertEquals(BookWriteStatus.APPLIED, queue.find(title.getTrackingId()).getStatus());
+        assertEquals(BookWriteStatus.APPLIED, queue.find(author.getTrackingId()).getStatus());
+        assertEquals(BookWriteStatus.NOT_FOUND, queue.find(missing.getTrackingId()).getStatus());
+        assertEquals(4L, cacheManager.getCache(CacheConfig.BOOKS_BY_ID).get("1", BookDTO.class).getVersion());
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    void testFlush_duplicateIsbnUpdateDoesNotFailOtherUpdatesOfTheBook() {
+        BookWriteBehindQueue queue = queue(100);
+        BookDAO stored = new BookDAO();
+        stored.setId("1");
+        stored.setTitle("New Title");
+        stored.setAuthor("Author");
+        stored.setIsbn("1111111111");
+        when(bookRepository.updateUnordered(anyList()))
+                .thenReturn(List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0)))
+                .thenReturn(List.of());
+        when(bookRepository.findAllById(any())).thenReturn(List.of(stored));
+
+        BookWriteDTO isbn = queue.enqueueUpdate("1", new Update().set("isbn", "2222222222"));
+        BookWriteDTO title = queue.enqueueUpdate("1", new Update().set("title", "New Title"));
+        queue.flush();
+
+        // Assertions
+        assertEquals(BookWriteStatus.DUPLICATE_ISBN, queue.find(isbn.getTrackingId()).getStatus());
+        assertEquals("ISBN '2222222222' already exists", queue.find(isbn.getTrackingId()).getMessage());
+        assertEquals(BookWriteStatus.APPLIED, queue.find(title.getTrackingId()).getStatus());
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    void testRun_keepsFlushingAfterAListenerFails() throws InterruptedException {
+        List<BookChangedEvent> received = new ArrayList<>();
+        BookWriteBehindQueue queue = new BookWriteBehindQueue(bookRepository, new BookMapper(), cacheManager,
+                event -> {
+                    received.add((BookChangedEvent) event);
+                    if (received.size() == 1) {
+                        throw new IllegalStateException("listener failed");
+                    }
+                }, meterRegistry, 100, 500, Duration.ofMillis(10));
+        when(bookRepository.insertUnordered(anyList())).thenReturn(List.of());
+        queue.start();
+
+        BookWriteDTO first = queue.enqueueCreate(book("1111111111"));
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (queue.find(first.getTrackingId()).getStatus() == BookWriteStatus.QUEUED && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        BookWriteDTO second = queue.enqueueCreate(book("2222222222"));
+        queue.stop();
+
+        // Assertions
+        assertEquals(BookWriteStatus.APPLIED, queue.find(first.getTrackingId()).getStatus());
+        assertEquals(BookWriteStatus.APPLIED, queue.find(second.getTrackingId()).getStatus());
+        assertEquals(2, received.size());
+    }
+
+    @Test
+    void testEnqueue_rejectsWritesBeyondCapacity() {
+        BookWriteBehindQueue queue = queue(2);
+        queue.enqueueCreate(book("1111111111"));
+        queue.enqueueCreate(book("2222222222"));
+
+        // Assertions
+        assertThrows(TooManyRequestsException.class, () -> queue.enqueueCreate(book("3333333333")));
+        assertEquals(2, queue.depth());
+        assertEquals(1.0, meterRegistry.get("books.write_behind.rejected").counter().count());
+        assertEquals(2.0, meterRegistry.get("books.write_behind.queue.depth").gauge().value());
+    }
+
+    @Test
+    void testStop_flushesPendingWrites() throws InterruptedException {
+        BookWriteBehindQueue queue = new BookWriteBehindQueue(bookRepository, new BookMapper(), cacheManager,
+                event -> events.add((BookChangedEvent) event), meterRegistry, 100, 500, Duration.ofMinutes(1));
+        when(bookRepository.insertUnordered(anyList())).thenReturn(List.of());
+        queue.start();
+
+        BookWriteDTO write = queue.enqueueCreate(book("1111111111"));
+        queue.stop();
+
+        // Assertions
+        assertEquals(0, queue.depth());
+        assertEquals(BookWriteStatus.APPLIED, queue.find(write.getTrackingId()).getStatus());
+    }
+
+    private BookWriteBehindQueue queue(int capacity) {
+        return new BookWriteBehindQueue(bookRepository, new BookMapper(), cacheManager,
+                event -> events.add((BookChangedEvent) event), meterRegistry, capacity, 500, Duration.ofMillis(200));
+    }
+
+    private static BookDTO book(String isbn) {
+        BookDTO book = new BookDTO();
+        book.setTitle("Title " + isbn);
+        book.setAuthor("Author");
+        book.setIsbn(isbn);
+        book.setPublishedDate(LocalDate.of(2020, 1, 1));
+        return book;
+    }
+}